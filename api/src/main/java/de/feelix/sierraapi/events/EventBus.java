@@ -34,6 +34,17 @@ public interface EventBus {
      */
     <T extends SierraAbstractEvent> void subscribe(Class<T> eventType, Consumer<T> event, ListenerPriority priority);
 
+    /**
+     * Checks whether an event of the given type would reach any subscriber, including the subscribers of its
+     * supertypes. Publishers can use it to skip constructing events nobody listens to.
+     *
+     * @param eventType the class of the event
+     * @return true if at least one subscriber receives events of the given class
+     */
+    default boolean hasSubscribers(Class<? extends SierraAbstractEvent> eventType) {
+        return true;
+    }
+
     /**
      * Publishes an event to the event bus.
      *
@@ -50,7 +61,11 @@ public interface EventBus {
      * @param <T>              the type of the event, must extend {@link SierraAbstractEvent}
      * @param event            the event to be dispatched
      * @param eventSubscribers the list of event subscribers to send the event to
+     *
+     * @deprecated Use {@link #publish(SierraAbstractEvent)}, which dispatches to the registered subscribers of the
+     * event type without sorting them on every call.
      */
+    @Deprecated
     <T extends SierraAbstractEvent> void dispatchEventToSubscribers(T event,
                                                                     List<EventSubscriber<?>> eventSubscribers);
 }
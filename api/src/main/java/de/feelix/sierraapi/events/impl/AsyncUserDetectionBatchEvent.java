@@ -0,0 +1,29 @@
+package de.feelix.sierraapi.events.impl;
+
+import de.feelix.sierraapi.events.api.SierraAbstractEvent;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * The AsyncUserDetectionBatchEvent class represents an asynchronous event that carries several detections at once.
+ * It is published after the contained {@link AsyncUserDetectionEvent}s were published one by one, so subscribers
+ * that process detections in bulk can subscribe to it instead. Cancelling it has no effect.
+ */
+@Getter
+public class AsyncUserDetectionBatchEvent extends SierraAbstractEvent {
+
+    /**
+     * The detections of this batch, in the order they occurred. The list is unmodifiable.
+     */
+    private final List<AsyncUserDetectionEvent> events;
+
+    /**
+     * The AsyncUserDetectionBatchEvent class represents an asynchronous event that carries several detections at once.
+     *
+     * @param events The detections of this batch, in the order they occurred.
+     */
+    public AsyncUserDetectionBatchEvent(List<AsyncUserDetectionEvent> events) {
+        this.events = events;
+    }
+}
@@ -1,5 +1,7 @@
 package de.feelix.sierraapi.server;
 
+import de.feelix.sierraapi.timing.TimingHandler;
+
 import java.util.UUID;
 
 /**
@@ -21,4 +23,12 @@ public interface SierraServer {
      * @return the TPS of the server as a double value
      */
     double tps();
+
+    /**
+     * Returns the server-wide TimingHandler, which aggregates the timings of all players and measures every check
+     * per packet type.
+     *
+     * @return the server-wide TimingHandler
+     */
+    TimingHandler timingHandler();
 }
@@ -0,0 +1,38 @@
+package de.feelix.sierraapi.timing;
+
+import de.feelix.sierraapi.check.CheckType;
+
+/**
+ * The CheckTiming interface represents the timing of a single check for a single packet type.
+ * It is used to find out which check costs the most processing time for which packets.
+ */
+public interface CheckTiming {
+
+    /**
+     * Returns the type of the timed check.
+     *
+     * @return the CheckType of the timed check
+     */
+    CheckType checkType();
+
+    /**
+     * Returns the name of the timed packet type, or "OTHER" for packets outside the play state.
+     *
+     * @return the name of the packet type
+     */
+    String packetType();
+
+    /**
+     * Returns whether the timed packets are sent by the server.
+     *
+     * @return true for outgoing packets, false for incoming packets
+     */
+    boolean outgoing();
+
+    /**
+     * Returns the Timing object measuring the check invocations for the packet type.
+     *
+     * @return the Timing of the check for the packet type
+     */
+    Timing timing();
+}
@@ -6,6 +6,24 @@ package de.feelix.sierraapi.timing;
  */
 public interface Timing {
 
+    /**
+     * A Timing which measures nothing, for tasks that are not measured by an implementation.
+     */
+    Timing NONE = new Timing() {
+        @Override
+        public void prepare() {
+        }
+
+        @Override
+        public void end() {
+        }
+
+        @Override
+        public double delay() {
+            return -1;
+        }
+    };
+
     /**
      * Prepares the Timing object for measuring the timing of an event.
      * This method should be called before starting the event that needs to be timed.
@@ -27,4 +45,45 @@ public interface Timing {
      * @return the delay measured by the Timing object as a double
      */
     double delay();
+
+    /**
+     * Returns the given percentile of the delays measured within the recent time window.
+     * Implementations without a history return the last measured delay.
+     *
+     * @param percentile the percentile between 0 and 100, e.g. 99 for the p99 delay
+     * @return the percentile of the recent delays in milliseconds
+     */
+    default double percentile(double percentile) {
+        return delay();
+    }
+
+    /**
+     * Returns the largest delay measured within the recent time window.
+     * Implementations without a history return the last measured delay.
+     *
+     * @return the largest recent delay in milliseconds
+     */
+    default double maxDelay() {
+        return delay();
+    }
+
+    /**
+     * Returns the sum of all delays measured within the recent time window.
+     * Implementations without a history return the last measured delay.
+     *
+     * @return the total recent delay in milliseconds
+     */
+    default double totalDelay() {
+        return delay();
+    }
+
+    /**
+     * Returns the number of events measured within the recent time window.
+     * Implementations without a history return 0.
+     *
+     * @return the number of recent measurements
+     */
+    default long count() {
+        return 0;
+    }
 }
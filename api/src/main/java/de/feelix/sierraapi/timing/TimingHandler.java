@@ -1,5 +1,8 @@
 package de.feelix.sierraapi.timing;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * The TimingHandler interface represents an object that provides timing tasks for various operations.
  * The implementation of this interface should provide methods to retrieve different Timing objects
@@ -43,4 +46,46 @@ public interface TimingHandler {
      * @see Timing
      */
     Timing getFrequencyTask();
+
+    /**
+     * Retrieves the Timing object measuring how long transaction tasks wait until the player answered their
+     * transaction. Implementations not measuring the transaction tasks return {@link Timing#NONE}.
+     *
+     * @return the Timing object for measuring the delay of the transaction tasks
+     *
+     * @see Timing
+     */
+    default Timing getTransactionTask() {
+        return Timing.NONE;
+    }
+
+    /**
+     * Retrieves the number of transaction tasks currently waiting for the player to answer their transaction.
+     *
+     * @return the number of pending transaction tasks
+     */
+    default int getPendingTransactionTasks() {
+        return 0;
+    }
+
+    /**
+     * Retrieves the largest number of transaction tasks that were waiting at once for a single player.
+     *
+     * @return the peak number of pending transaction tasks
+     */
+    default int getPeakTransactionTasks() {
+        return 0;
+    }
+
+    /**
+     * Retrieves the timings of every check per packet type. Only the server-wide TimingHandler, available through
+     * {@code SierraServer#timingHandler()}, measures checks individually.
+     *
+     * @return the timings of every measured check and packet type pair
+     *
+     * @see CheckTiming
+     */
+    default List<CheckTiming> getCheckTimings() {
+        return Collections.emptyList();
+    }
 }
@@ -6,6 +6,7 @@ import de.feelix.sierraapi.user.impl.SierraUser;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * The UserRepository interface represents a repository for querying SierraUser objects based on different criteria.
@@ -38,9 +39,25 @@ public interface UserRepository {
     Optional<SierraUser> queryUserByName(String name);
 
     /**
-     * Retrieves the local action history of a user.
+     * Retrieves the most recent entries of the local action history, oldest first.
      *
-     * @return A List of History objects representing the user's action history. The list may be empty if no history is available.
+     * @return An unmodifiable List of History objects representing the recent action history. The list may be empty if no history is available.
      */
     List<History> getLocalActionHistory();
+
+    /**
+     * Retrieves the entries of the local action history within the given time range, oldest first, including entries
+     * that were persisted before the last restart.
+     *
+     * @param from  the first timestamp to include, in milliseconds since the epoch
+     * @param to    the first timestamp to exclude, in milliseconds since the epoch
+     * @param limit the maximum number of entries to return
+     * @return A List of History objects in the time range. The list may be empty if no history is available.
+     */
+    default List<History> queryActionHistory(long from, long to, int limit) {
+        return getLocalActionHistory().stream()
+            .filter(history -> history.timestamp() >= from && history.timestamp() < to)
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
 }
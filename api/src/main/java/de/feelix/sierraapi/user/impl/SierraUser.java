@@ -3,6 +3,7 @@ package de.feelix.sierraapi.user.impl;
 import com.github.retrooper.packetevents.protocol.player.GameMode;
 import de.feelix.sierraapi.check.CheckRepository;
 import de.feelix.sierraapi.timing.TimingHandler;
+import de.feelix.sierraapi.user.limit.RateLimit;
 import de.feelix.sierraapi.user.settings.AlertSettings;
 
 import java.util.UUID;
@@ -134,4 +135,18 @@ public interface SierraUser {
      * @return The TimingHandler object.
      */
     TimingHandler timingHandler();
+
+    /**
+     * Retrieves the limit of the bytes the user may send, for example to show its fill level on a dashboard.
+     *
+     * @return The RateLimit of the sent bytes.
+     */
+    RateLimit byteRateLimit();
+
+    /**
+     * Retrieves the limit of the packets the user may send, for example to show its fill level on a dashboard.
+     *
+     * @return The RateLimit of the sent packets.
+     */
+    RateLimit packetRateLimit();
 }
@@ -0,0 +1,40 @@
+package de.feelix.sierraapi.user.limit;
+
+/**
+ * The RateLimit interface represents a token bucket limiting what a user may send.
+ * The bucket holds up to {@link #burst()} tokens and refills at {@link #rate()} tokens per second; every sent unit
+ * takes one token.
+ */
+public interface RateLimit {
+
+    /**
+     * Returns the number of tokens the bucket refills per second.
+     *
+     * @return the rate in tokens per second
+     */
+    double rate();
+
+    /**
+     * Returns the number of tokens the bucket holds when it is full.
+     *
+     * @return the burst size in tokens
+     */
+    double burst();
+
+    /**
+     * Returns the number of tokens currently available.
+     *
+     * @return the available tokens
+     */
+    double available();
+
+    /**
+     * Returns how full the bucket currently is.
+     *
+     * @return the fill level between 0 (empty) and 1 (full)
+     */
+    default double fillLevel() {
+        double burst = burst();
+        return burst <= 0 ? 0 : Math.min(1, Math.max(0, available() / burst));
+    }
+}
@@ -0,0 +1,242 @@
+package de.feelix.sierra.benchmark;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.PacketEventsAPI;
+import com.github.retrooper.packetevents.injector.ChannelInjector;
+import com.github.retrooper.packetevents.manager.player.PlayerManager;
+import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
+import com.github.retrooper.packetevents.manager.server.ServerManager;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.NettyManager;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.config.SierraConfigEngine;
+import de.feelix.sierra.manager.event.AbstractEventBus;
+import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierra.manager.storage.SierraDataManager;
+import io.github.retrooper.packetevents.impl.netty.NettyManagerImpl;
+import org.bukkit.Server;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.PluginLogger;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Sets up just enough of a server for packets to run through the packet listener and the checks: a PacketEvents API
+ * with a fixed server version, a Sierra instance that is never enabled, the bundled configuration and the data manager.
+ * <p>
+ * The timer and the frequency checks are disabled, and the bandwidth limits are raised, as they throttle a flood of
+ * packets by design and would kick the benchmark player after a few milliseconds. The remaining checks run with the
+ * bundled configuration.
+ */
+final class BenchmarkPlatform {
+
+    static final ServerVersion SERVER_VERSION = ServerVersion.V_1_20_4;
+    static final ClientVersion CLIENT_VERSION = ClientVersion.V_1_20_3;
+
+    private static boolean installed;
+
+    private BenchmarkPlatform() {
+    }
+
+    static synchronized void install() {
+        if (installed) return;
+
+        try {
+            Sierra sierra = allocate(Sierra.class);
+            setField(Sierra.class, null, "plugin", sierra);
+            setField(JavaPlugin.class, sierra, "logger", new PluginLogger(pluginProxy()));
+            setField(Sierra.class, sierra, "eventBus", new AbstractEventBus());
+
+            PacketEvents.setAPI(new BenchmarkPacketEventsAPI(sierra));
+
+            seedConfiguration();
+            setField(Sierra.class, sierra, "sierraConfigEngine", new SierraConfigEngine());
+            setField(Sierra.class, sierra, "sierraDataManager", new SierraDataManager());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to set up the benchmark platform", e);
+        }
+        installed = true;
+    }
+
+    /**
+     * Connects a player in the play state, as done by PacketEvents for a real connection.
+     *
+     * @param name the name of the player
+     * @return the data of the player
+     */
+    static PlayerData connect(String name) {
+        User user = new User(null, ConnectionState.PLAY, CLIENT_VERSION, new UserProfile(
+            UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)), name));
+        SierraDataManager.getInstance().addPlayerData(user);
+        return SierraDataManager.getInstance().getPlayerData(user);
+    }
+
+    static void disconnect(PlayerData playerData) {
+        SierraDataManager.getInstance().removePlayerData(playerData.getUser());
+    }
+
+    /**
+     * Fails the benchmark if the checks punished the player, as the remaining packets would skip all checks.
+     *
+     * @param playerData the benchmark player
+     * @param what       the benchmarked packet or check
+     */
+    static void assertNotPunished(PlayerData playerData, Object what) {
+        if (playerData.isReceivedPunishment()) {
+            throw new IllegalStateException(what + " punished the benchmark player, its numbers are meaningless");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void seedConfiguration() throws ReflectiveOperationException {
+        YamlConfiguration config = load("sierra.yml");
+        config.set("prevent-packet-frequency", false);
+        config.set("prevent-timer-cheats", false);
+        config.set("bandwidth-bytes-per-second", 1_000_000_000);
+        config.set("bandwidth-bytes-burst", 1_000_000_000);
+        config.set("bandwidth-packets-per-second", -1);
+        config.set("enable-bypass-permission", false);
+
+        Field field = SierraConfigEngine.class.getDeclaredField("cache");
+        field.setAccessible(true);
+        Map<String, YamlConfiguration> cache = (Map<String, YamlConfiguration>) field.get(null);
+        cache.put("sierra.yml", config);
+        cache.put("messages.yml", load("messages.yml"));
+    }
+
+    private static YamlConfiguration load(String name) {
+        return YamlConfiguration.loadConfiguration(new InputStreamReader(
+            BenchmarkPlatform.class.getResourceAsStream("/" + name), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The plugin logger needs a plugin with a description and a server, which only provides its parent logger.
+     */
+    private static Plugin pluginProxy() {
+        Server server = (Server) Proxy.newProxyInstance(
+            Server.class.getClassLoader(), new Class<?>[]{Server.class},
+            (proxy, method, args) -> method.getName().equals("getLogger") ? Logger.getLogger("") : null
+        );
+        PluginDescriptionFile description = new PluginDescriptionFile(
+            "Sierra", "benchmark", Sierra.class.getName());
+
+        return (Plugin) Proxy.newProxyInstance(
+            Plugin.class.getClassLoader(), new Class<?>[]{Plugin.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getDescription":
+                        return description;
+                    case "getServer":
+                        return server;
+                    case "getName":
+                        return "Sierra";
+                    default:
+                        return null;
+                }
+            }
+        );
+    }
+
+    /**
+     * Allocates the plugin without running its constructor, which requires the plugin class loader of a server.
+     */
+    private static <T> T allocate(Class<T> type) throws ReflectiveOperationException {
+        Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+        Field field = unsafeClass.getDeclaredField("theUnsafe");
+        field.setAccessible(true);
+        Method allocateInstance = unsafeClass.getMethod("allocateInstance", Class.class);
+        return type.cast(allocateInstance.invoke(field.get(null), type));
+    }
+
+    private static void setField(Class<?> owner, Object target, String name, Object value)
+        throws ReflectiveOperationException {
+        Field field = owner.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    /**
+     * A PacketEvents API without an injector, for packets which are handed to the listener directly.
+     */
+    private static final class BenchmarkPacketEventsAPI extends PacketEventsAPI<Sierra> {
+
+        private final Sierra        plugin;
+        private final ServerManager serverManager = () -> SERVER_VERSION;
+        private final NettyManager  nettyManager  = new NettyManagerImpl();
+
+        private BenchmarkPacketEventsAPI(Sierra plugin) {
+            this.plugin = plugin;
+        }
+
+        @Override
+        public void load() {
+        }
+
+        @Override
+        public boolean isLoaded() {
+            return true;
+        }
+
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public boolean isInitialized() {
+            return true;
+        }
+
+        @Override
+        public void terminate() {
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public Sierra getPlugin() {
+            return plugin;
+        }
+
+        @Override
+        public ServerManager getServerManager() {
+            return serverManager;
+        }
+
+        @Override
+        public ProtocolManager getProtocolManager() {
+            return null;
+        }
+
+        @Override
+        public PlayerManager getPlayerManager() {
+            return null;
+        }
+
+        @Override
+        public NettyManager getNettyManager() {
+            return nettyManager;
+        }
+
+        @Override
+        public ChannelInjector getInjector() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package de.feelix.sierra.benchmark;
+
+import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import de.feelix.sierra.manager.packet.IngoingProcessor;
+import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierraapi.check.impl.SierraCheck;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures a single check for a received packet, so its time and allocations per packet are not hidden in the sum
+ * of all checks. The check has to decode the packet itself, which is shared by all checks of a packet otherwise.
+ * <p>
+ * Restrict the matrix with {@code -p check=...} or {@code -p packet=...} to measure a single combination.
+ */
+@State(Scope.Thread)
+public class CheckBenchmark {
+
+    @Param({"FLYING", "CLICK_WINDOW", "EDIT_BOOK", "PLUGIN_MESSAGE", "CHAT"})
+    public String packet;
+
+    @Param({
+        "FrequencyDetection", "BookValidation", "ProtocolValidation", "MovementValidation", "CreativeCrasher",
+        "PostCheck", "CommandValidation"
+    })
+    public String check;
+
+    private SyntheticPacket  syntheticPacket;
+    private IngoingProcessor processor;
+    private PlayerData       playerData;
+    private Object           buffer;
+
+    @Setup
+    public void setup() {
+        BenchmarkPlatform.install();
+        syntheticPacket = SyntheticPacket.valueOf(packet);
+        playerData = BenchmarkPlatform.connect("CheckBench");
+        buffer = syntheticPacket.encode();
+
+        for (SierraCheck sierraCheck : playerData.getCheckManager().getPacketChecks()) {
+            if (sierraCheck instanceof IngoingProcessor && sierraCheck.getClass().getSimpleName().equals(check)) {
+                processor = (IngoingProcessor) sierraCheck;
+            }
+        }
+        if (processor == null) {
+            throw new IllegalArgumentException("Unknown ingoing check " + check);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void verify() {
+        BenchmarkPlatform.assertNotPunished(playerData, check + " on " + syntheticPacket);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkPlatform.disconnect(playerData);
+        ByteBufHelper.release(buffer);
+    }
+
+    @Benchmark
+    public boolean handle() {
+        PacketReceiveEvent event = syntheticPacket.event(playerData.getUser(), buffer);
+        processor.handle(event, playerData);
+        return event.isCancelled();
+    }
+}
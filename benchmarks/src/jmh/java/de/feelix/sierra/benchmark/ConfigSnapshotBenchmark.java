@@ -0,0 +1,52 @@
+package de.feelix.sierra.benchmark;
+
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import de.feelix.sierra.manager.config.ConfigSnapshot;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Compares the frequency limit lookup of the compiled snapshot with querying the YAML tree, as done before.
+ */
+@State(Scope.Benchmark)
+public class ConfigSnapshotBenchmark {
+
+    private YamlConfiguration config;
+    private ConfigSnapshot    snapshot;
+
+    @Setup
+    public void setup() {
+        config = YamlConfiguration.loadConfiguration(new InputStreamReader(
+            ConfigSnapshotBenchmark.class.getResourceAsStream("/sierra.yml"), StandardCharsets.UTF_8));
+        snapshot = new ConfigSnapshot(config);
+    }
+
+    @Benchmark
+    public int snapshotFrequencyLimit() {
+        return snapshot.frequencyLimit(PacketType.Play.Client.HELD_ITEM_CHANGE);
+    }
+
+    @Benchmark
+    public boolean snapshotExcluded() {
+        return snapshot.isExcludedFromLimit(PacketType.Play.Client.HELD_ITEM_CHANGE);
+    }
+
+    @Benchmark
+    public int yamlFrequencyLimit() {
+        List<String> entries = config.getStringList("generic-packet-frequency-limit");
+        for (String entry : entries) {
+            String[] parts = entry.split(":");
+            if (parts[0].equals(PacketType.Play.Client.HELD_ITEM_CHANGE.getName())) {
+                return Integer.parseInt(parts[1]);
+            }
+        }
+        return config.getInt("generic-packet-frequency-default", 50);
+    }
+}
@@ -0,0 +1,50 @@
+package de.feelix.sierra.benchmark;
+
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTInt;
+import com.github.retrooper.packetevents.protocol.nbt.NBTList;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import de.feelix.sierra.utilities.FormatUtils;
+import de.feelix.sierra.utilities.nbt.NBTAnalysis;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares measuring item NBT with {@link NBTAnalysis} to building its String representation, for a regular book and
+ * an oversized one as sent by crash clients.
+ */
+@State(Scope.Thread)
+public class NBTAnalysisBenchmark {
+
+    @Param({"50", "20000"})
+    public int pages;
+
+    private final NBTAnalysis analysis = new NBTAnalysis("translate", ":[{extra:[{");
+    private       NBTCompound compound;
+
+    @Setup
+    public void setup() {
+        NBTList<NBTString> pageList = NBTList.createStringList();
+        for (int i = 0; i < pages; i++) {
+            pageList.addTag(new NBTString("{\"text\":\"Page " + i + " of a regular book with some content\"}"));
+        }
+        compound = new NBTCompound();
+        compound.setTag("pages", pageList);
+        compound.setTag("author", new NBTString("Sierra"));
+        compound.setTag("title", new NBTString("Benchmark"));
+        compound.setTag("generation", new NBTInt(0));
+    }
+
+    @Benchmark
+    public long analyze() {
+        return analysis.analyze(compound, 30000, 10000).getLength();
+    }
+
+    @Benchmark
+    public int mapToString() {
+        return FormatUtils.mapToString(compound.getTags()).length();
+    }
+}
@@ -0,0 +1,63 @@
+package de.feelix.sierra.benchmark;
+
+import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import de.feelix.sierra.listener.PacketReceiveListener;
+import de.feelix.sierra.manager.storage.PlayerData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the cost of a received packet on the netty event loop, once through the whole packet listener and once
+ * through the checks only. The difference is the cost of the pre-checks, such as the size and the NBT pre-scan.
+ */
+@State(Scope.Thread)
+public class PacketPipelineBenchmark {
+
+    @Param({"FLYING", "CLICK_WINDOW", "EDIT_BOOK", "PLUGIN_MESSAGE", "CHAT"})
+    public String packet;
+
+    private SyntheticPacket       syntheticPacket;
+    private PacketReceiveListener listener;
+    private PlayerData            playerData;
+    private Object                buffer;
+
+    @Setup
+    public void setup() {
+        BenchmarkPlatform.install();
+        syntheticPacket = SyntheticPacket.valueOf(packet);
+        listener = new PacketReceiveListener();
+        playerData = BenchmarkPlatform.connect("PipelineBench");
+        buffer = syntheticPacket.encode();
+    }
+
+    @TearDown(Level.Iteration)
+    public void verify() {
+        BenchmarkPlatform.assertNotPunished(playerData, syntheticPacket);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkPlatform.disconnect(playerData);
+        ByteBufHelper.release(buffer);
+    }
+
+    @Benchmark
+    public boolean listener() {
+        PacketReceiveEvent event = syntheticPacket.event(playerData.getUser(), buffer);
+        listener.onPacketReceive(event);
+        return event.isCancelled();
+    }
+
+    @Benchmark
+    public boolean checks() {
+        PacketReceiveEvent event = syntheticPacket.event(playerData.getUser(), buffer);
+        playerData.getCheckManager().processAvailableChecksReceive(event);
+        return event.isCancelled();
+    }
+}
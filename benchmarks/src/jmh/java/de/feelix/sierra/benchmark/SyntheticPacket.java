@@ -0,0 +1,166 @@
+package de.feelix.sierra.benchmark;
+
+import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.exception.PacketProcessException;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.chat.LastSeenMessages;
+import com.github.retrooper.packetevents.protocol.item.ItemStack;
+import com.github.retrooper.packetevents.protocol.item.type.ItemTypes;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTList;
+import com.github.retrooper.packetevents.protocol.nbt.NBTShort;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.protocol.nbt.NBTType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.util.Vector3d;
+import com.github.retrooper.packetevents.util.crypto.MessageSignData;
+import com.github.retrooper.packetevents.util.crypto.SaltSignature;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientChatMessage;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientClickWindow;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientEditBook;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientPlayerPosition;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientPluginMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * Legitimate packets of a regular client, encoded once and handed to the listener as a fresh event per invocation.
+ * None of them is expected to be flagged by a check.
+ */
+enum SyntheticPacket {
+
+    /**
+     * A position update, the most frequent packet of a moving player.
+     */
+    FLYING(PacketType.Play.Client.PLAYER_POSITION) {
+        @Override
+        PacketWrapper<?> wrapper() {
+            return new WrapperPlayClientPlayerPosition(new Vector3d(0.5, 64, 0.5), true);
+        }
+    },
+
+    /**
+     * Picking up an enchanted and renamed sword, so the NBT of the carried item is scanned and validated.
+     */
+    CLICK_WINDOW(PacketType.Play.Client.CLICK_WINDOW) {
+        @Override
+        PacketWrapper<?> wrapper() {
+            return new WrapperPlayClientClickWindow(
+                0, Optional.of(1), 36, 0, Optional.empty(), WrapperPlayClientClickWindow.WindowClickType.PICKUP,
+                Optional.of(Collections.singletonMap(36, ItemStack.EMPTY)), enchantedSword()
+            );
+        }
+    },
+
+    EDIT_BOOK(PacketType.Play.Client.EDIT_BOOK) {
+        @Override
+        PacketWrapper<?> wrapper() {
+            return new WrapperPlayClientEditBook(0, Arrays.asList(
+                "The first page of a regular book",
+                "The second page, which is a little longer than the first one",
+                "The third and last page"
+            ), null);
+        }
+    },
+
+    PLUGIN_MESSAGE(PacketType.Play.Client.PLUGIN_MESSAGE) {
+        @Override
+        PacketWrapper<?> wrapper() {
+            return new WrapperPlayClientPluginMessage(
+                "sierra:benchmark", "payload of a client side mod".getBytes(StandardCharsets.UTF_8));
+        }
+    },
+
+    CHAT(PacketType.Play.Client.CHAT_MESSAGE) {
+        @Override
+        PacketWrapper<?> wrapper() {
+            return new WrapperPlayClientChatMessage(
+                "Hello there, does anyone want to trade some diamonds?",
+                new MessageSignData(new SaltSignature(0L, new byte[0]), Instant.now()),
+                new LastSeenMessages.Update(0, new BitSet())
+            );
+        }
+    };
+
+    private final PacketType.Play.Client type;
+
+    SyntheticPacket(PacketType.Play.Client type) {
+        this.type = type;
+    }
+
+    abstract PacketWrapper<?> wrapper();
+
+    /**
+     * Encodes the packet the way it arrives from the client, without its packet id.
+     *
+     * @return the buffer holding the packet
+     */
+    Object encode() {
+        PacketWrapper<?> wrapper = wrapper();
+        wrapper.setBuffer(UnpooledByteBufAllocationHelper.buffer());
+        wrapper.write();
+        return wrapper.getBuffer();
+    }
+
+    /**
+     * Creates the event of a received packet, as created by PacketEvents for every packet.
+     *
+     * @param user   the sender of the packet
+     * @param buffer the buffer created by {@link #encode()}, which is rewound to its start
+     * @return the event
+     */
+    PacketReceiveEvent event(User user, Object buffer) {
+        ByteBufHelper.readerIndex(buffer, 0);
+        try {
+            return new SyntheticPacketReceiveEvent(
+                type.getId(BenchmarkPlatform.CLIENT_VERSION), type, user, buffer);
+        } catch (PacketProcessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ItemStack enchantedSword() {
+        NBTCompound display = new NBTCompound();
+        display.setTag("Name", new NBTString("{\"text\":\"Excalibur\",\"italic\":false}"));
+        NBTList<NBTString> lore = NBTList.createStringList();
+        lore.addTag(new NBTString("{\"text\":\"Forged in the nether\"}"));
+        lore.addTag(new NBTString("{\"text\":\"Owned by a legitimate player\"}"));
+        display.setTag("Lore", lore);
+
+        NBTList<NBTCompound> enchantments = new NBTList<>(NBTType.COMPOUND);
+        enchantments.addTag(enchantment("minecraft:sharpness", 5));
+        enchantments.addTag(enchantment("minecraft:unbreaking", 3));
+
+        NBTCompound tag = new NBTCompound();
+        tag.setTag("display", display);
+        tag.setTag("Enchantments", enchantments);
+
+        return ItemStack.builder().type(ItemTypes.DIAMOND_SWORD).amount(1).nbt(tag).build();
+    }
+
+    private static NBTCompound enchantment(String id, int level) {
+        NBTCompound enchantment = new NBTCompound();
+        enchantment.setTag("id", new NBTString(id));
+        enchantment.setTag("lvl", new NBTShort((short) level));
+        return enchantment;
+    }
+
+    /**
+     * Exposes the constructor PacketEvents uses for a packet decoded from a channel.
+     */
+    private static final class SyntheticPacketReceiveEvent extends PacketReceiveEvent {
+
+        private SyntheticPacketReceiveEvent(int packetId, PacketType.Play.Client type, User user, Object buffer)
+            throws PacketProcessException {
+            super(packetId, type, BenchmarkPlatform.SERVER_VERSION, null, user, null, buffer);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package de.feelix.sierra.benchmark;
+
+import de.feelix.sierra.manager.storage.timings.AggregateTiming;
+import de.feelix.sierra.manager.storage.timings.SierraTiming;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Measures the cost of timing a packet, which is paid several times for every packet on the netty event loops.
+ */
+@State(Scope.Benchmark)
+public class TimingBenchmark {
+
+    private final AggregateTiming aggregate = new AggregateTiming();
+
+    @State(Scope.Thread)
+    public static class PlayerTiming {
+        private SierraTiming timing;
+
+        @Setup
+        public void setup(TimingBenchmark benchmark) {
+            timing = new SierraTiming(benchmark.aggregate);
+        }
+    }
+
+    @Benchmark
+    public void prepareAndEnd(PlayerTiming playerTiming) {
+        playerTiming.timing.prepare();
+        playerTiming.timing.end();
+    }
+
+    @Benchmark
+    public void record(PlayerTiming playerTiming) {
+        playerTiming.timing.record(1_500, System.nanoTime());
+    }
+
+    /**
+     * Four event loops recording the timings of their players, which are part of the same server-wide timing.
+     */
+    @Benchmark
+    @Threads(4)
+    public void recordContended(PlayerTiming playerTiming) {
+        playerTiming.timing.record(1_500, System.nanoTime());
+    }
+
+    /**
+     * Reads the server-wide timing, which adds up the histograms of all players at most once per second.
+     */
+    @Benchmark
+    public long readAggregate() {
+        return aggregate.count();
+    }
+}
@@ -2,6 +2,8 @@ package de.feelix.sierra.check;
 
 import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import de.feelix.sierra.check.impl.book.BookValidation;
 import de.feelix.sierra.check.impl.command.CommandValidation;
 import de.feelix.sierra.check.impl.creative.CreativeCrasher;
@@ -11,22 +13,57 @@ import de.feelix.sierra.check.impl.protocol.ProtocolValidation;
 import de.feelix.sierra.check.impl.frequency.FrequencyDetection;
 import de.feelix.sierra.manager.packet.IngoingProcessor;
 import de.feelix.sierra.manager.packet.OutgoingProcessor;
+import de.feelix.sierra.manager.packet.PacketSubscription;
 import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierra.manager.storage.timings.AggregateTiming;
+import de.feelix.sierra.manager.storage.timings.GlobalTimingHandler;
+import de.feelix.sierra.manager.storage.timings.SierraTiming;
+import de.feelix.sierraapi.check.CheckType;
 import de.feelix.sierraapi.check.impl.SierraCheck;
 import lombok.Getter;
 import de.feelix.sierraapi.check.CheckRepository;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * The CheckManager class is responsible for managing packet checks for a player.
+ * <p>
+ * Processors are indexed by packet type once on construction, so every packet is only handed to the checks that
+ * subscribed to it via {@link PacketSubscription}. Every check invocation is timed into a timing of this player, which
+ * is created on first use and is part of the server-wide timing of its check and packet type. The server-wide timings
+ * are looked up once per table entry as well.
+ * <p>
+ * The findings of all checks for a packet are aggregated into a {@link PacketVerdict}, so a packet runs the side
+ * effects of a detection at most once and skips its remaining checks once it is going to be kicked.
  */
 @Getter
 public class CheckManager implements CheckRepository {
 
+    private static final PacketType.Play.Client[] CLIENT_TYPES = PacketType.Play.Client.values();
+    private static final PacketType.Play.Server[] SERVER_TYPES = PacketType.Play.Server.values();
+
     private final List<SierraCheck> packetChecks = new ArrayList<>();
     private final PlayerData        playerData;
+    private final PacketVerdict     verdict = new PacketVerdict();
+
+    private final IngoingProcessor[][]  ingoingTable  = new IngoingProcessor[CLIENT_TYPES.length][];
+    private final OutgoingProcessor[][] outgoingTable = new OutgoingProcessor[SERVER_TYPES.length][];
+    private       IngoingProcessor[]    ingoingWildcards;
+    private       OutgoingProcessor[]   outgoingWildcards;
+
+    private final AggregateTiming[][] ingoingAggregates  = new AggregateTiming[CLIENT_TYPES.length][];
+    private final AggregateTiming[][] outgoingAggregates = new AggregateTiming[SERVER_TYPES.length][];
+    private       AggregateTiming[]   ingoingWildcardAggregates;
+    private       AggregateTiming[]   outgoingWildcardAggregates;
+
+    // Aligned with the aggregates, filled on first use
+    private final SierraTiming[][] ingoingTimings  = new SierraTiming[CLIENT_TYPES.length][];
+    private final SierraTiming[][] outgoingTimings = new SierraTiming[SERVER_TYPES.length][];
+    private       SierraTiming[]   ingoingWildcardTimings;
+    private       SierraTiming[]   outgoingWildcardTimings;
+    private       boolean          timingsClosed;
 
     public CheckManager(PlayerData playerData) {
         this.playerData = playerData;
@@ -37,20 +74,205 @@ public class CheckManager implements CheckRepository {
         packetChecks.add(new CreativeCrasher(playerData));
         packetChecks.add(new PostCheck(playerData));
         packetChecks.add(new CommandValidation(playerData));
+        buildDispatchTables();
+    }
+
+    /**
+     * Builds the packet type to processor tables. The registration order of the checks is preserved per packet type.
+     */
+    private void buildDispatchTables() {
+        List<IngoingProcessor> ingoingAll = new ArrayList<>();
+        List<OutgoingProcessor> outgoingAll = new ArrayList<>();
+
+        for (SierraCheck check : packetChecks) {
+            PacketSubscription subscription = check.getClass().getAnnotation(PacketSubscription.class);
+
+            if (check instanceof IngoingProcessor
+                && (subscription == null || subscription.ingoing().length == 0)) {
+                ingoingAll.add((IngoingProcessor) check);
+            }
+            if (check instanceof OutgoingProcessor
+                && (subscription == null || subscription.outgoing().length == 0)) {
+                outgoingAll.add((OutgoingProcessor) check);
+            }
+        }
+
+        ingoingWildcards = ingoingAll.toArray(new IngoingProcessor[0]);
+        outgoingWildcards = outgoingAll.toArray(new OutgoingProcessor[0]);
+        ingoingWildcardAggregates = aggregatesOf(ingoingWildcards, null, false);
+        outgoingWildcardAggregates = aggregatesOf(outgoingWildcards, null, true);
+        ingoingWildcardTimings = new SierraTiming[ingoingWildcards.length];
+        outgoingWildcardTimings = new SierraTiming[outgoingWildcards.length];
+
+        for (PacketType.Play.Client type : CLIENT_TYPES) {
+            List<IngoingProcessor> processors = new ArrayList<>();
+            for (SierraCheck check : packetChecks) {
+                if (check instanceof IngoingProcessor && subscribesIngoing(check, type)) {
+                    processors.add((IngoingProcessor) check);
+                }
+            }
+            ingoingTable[type.ordinal()] = processors.toArray(new IngoingProcessor[0]);
+            ingoingAggregates[type.ordinal()] = aggregatesOf(ingoingTable[type.ordinal()], type, false);
+            ingoingTimings[type.ordinal()] = new SierraTiming[processors.size()];
+        }
+
+        for (PacketType.Play.Server type : SERVER_TYPES) {
+            List<OutgoingProcessor> processors = new ArrayList<>();
+            for (SierraCheck check : packetChecks) {
+                if (check instanceof OutgoingProcessor && subscribesOutgoing(check, type)) {
+                    processors.add((OutgoingProcessor) check);
+                }
+            }
+            outgoingTable[type.ordinal()] = processors.toArray(new OutgoingProcessor[0]);
+            outgoingAggregates[type.ordinal()] = aggregatesOf(outgoingTable[type.ordinal()], type, true);
+            outgoingTimings[type.ordinal()] = new SierraTiming[processors.size()];
+        }
+    }
+
+    /**
+     * Looks up the server-wide timings of the given processors for the given packet type.
+     *
+     * @param processors The processors of a table entry
+     * @param packetType The packet type of the table entry, or null for the wildcard entries
+     * @param outgoing   Whether the packet type is sent by the server
+     * @return The timings aligned with the processors, null for checks without a check type
+     */
+    private AggregateTiming[] aggregatesOf(Object[] processors, PacketTypeCommon packetType, boolean outgoing) {
+        AggregateTiming[] aggregates = new AggregateTiming[processors.length];
+        for (int i = 0; i < processors.length; i++) {
+            CheckType checkType = ((SierraCheck) processors[i]).checkType();
+            if (checkType != null) {
+                aggregates[i] = GlobalTimingHandler.getInstance().checkTiming(checkType, packetType, outgoing);
+            }
+        }
+        return aggregates;
+    }
+
+    private boolean subscribesIngoing(SierraCheck check, PacketType.Play.Client type) {
+        PacketSubscription subscription = check.getClass().getAnnotation(PacketSubscription.class);
+        return subscription == null || subscription.ingoing().length == 0
+               || Arrays.asList(subscription.ingoing()).contains(type);
+    }
+
+    private boolean subscribesOutgoing(SierraCheck check, PacketType.Play.Server type) {
+        PacketSubscription subscription = check.getClass().getAnnotation(PacketSubscription.class);
+        return subscription == null || subscription.outgoing().length == 0
+               || Arrays.asList(subscription.outgoing()).contains(type);
     }
 
     public void processAvailableChecksReceive(PacketReceiveEvent event) {
-        for (SierraCheck availableCheck : packetChecks) {
-            if (availableCheck instanceof IngoingProcessor) {
-                ((IngoingProcessor) availableCheck).handle(event, playerData);
+        PacketTypeCommon packetType = event.getPacketType();
+        IngoingProcessor[] processors;
+        AggregateTiming[] aggregates;
+        SierraTiming[] timings;
+
+        if (packetType instanceof PacketType.Play.Client) {
+            int ordinal = ((PacketType.Play.Client) packetType).ordinal();
+            processors = ingoingTable[ordinal];
+            aggregates = ingoingAggregates[ordinal];
+            timings = ingoingTimings[ordinal];
+        } else {
+            processors = ingoingWildcards;
+            aggregates = ingoingWildcardAggregates;
+            timings = ingoingWildcardTimings;
+        }
+
+        boolean opened = !verdict.isOpen();
+        if (opened) verdict.open();
+
+        try {
+            for (int i = 0; i < processors.length && !verdict.isFinal(); i++) {
+                long start = System.nanoTime();
+                try {
+                    processors[i].handle(event, playerData);
+                } finally {
+                    record(timings, aggregates, i, start);
+                }
             }
+        } finally {
+            if (opened) verdict.close();
         }
     }
 
     public void processAvailableChecksSend(PacketSendEvent event) {
-        for (SierraCheck availableCheck : packetChecks) {
-            if (availableCheck instanceof OutgoingProcessor) {
-                ((OutgoingProcessor) availableCheck).handle(event, playerData);
+        PacketTypeCommon packetType = event.getPacketType();
+        OutgoingProcessor[] processors;
+        AggregateTiming[] aggregates;
+        SierraTiming[] timings;
+
+        if (packetType instanceof PacketType.Play.Server) {
+            int ordinal = ((PacketType.Play.Server) packetType).ordinal();
+            processors = outgoingTable[ordinal];
+            aggregates = outgoingAggregates[ordinal];
+            timings = outgoingTimings[ordinal];
+        } else {
+            processors = outgoingWildcards;
+            aggregates = outgoingWildcardAggregates;
+            timings = outgoingWildcardTimings;
+        }
+
+        boolean opened = !verdict.isOpen();
+        if (opened) verdict.open();
+
+        try {
+            for (int i = 0; i < processors.length && !verdict.isFinal(); i++) {
+                long start = System.nanoTime();
+                try {
+                    processors[i].handle(event, playerData);
+                } finally {
+                    record(timings, aggregates, i, start);
+                }
+            }
+        } finally {
+            if (opened) verdict.close();
+        }
+    }
+
+    private void record(SierraTiming[] timings, AggregateTiming[] aggregates, int index, long start) {
+        if (aggregates[index] == null) return;
+
+        SierraTiming timing = timings[index];
+        if (timing == null && (timing = createTiming(timings, aggregates, index)) == null) return;
+
+        long now = System.nanoTime();
+        timing.record(now - start, now);
+    }
+
+    /**
+     * Creates the timing of a table entry on its first use. Synchronized with {@link #closeTimings()}, so no timing
+     * joins a server-wide timing after the player left.
+     *
+     * @return The timing, or null if the timings were already closed
+     */
+    private synchronized SierraTiming createTiming(SierraTiming[] timings, AggregateTiming[] aggregates, int index) {
+        if (timingsClosed) return null;
+
+        if (timings[index] == null) {
+            timings[index] = new SierraTiming(aggregates[index]);
+        }
+        return timings[index];
+    }
+
+    /**
+     * Removes the check timings of the player from the server-wide timings, which keep their recent samples.
+     */
+    public synchronized void closeTimings() {
+        timingsClosed = true;
+
+        closeTimings(ingoingWildcardTimings);
+        closeTimings(outgoingWildcardTimings);
+        for (SierraTiming[] timings : ingoingTimings) {
+            closeTimings(timings);
+        }
+        for (SierraTiming[] timings : outgoingTimings) {
+            closeTimings(timings);
+        }
+    }
+
+    private static void closeTimings(SierraTiming[] timings) {
+        for (SierraTiming timing : timings) {
+            if (timing != null) {
+                timing.close();
             }
         }
     }
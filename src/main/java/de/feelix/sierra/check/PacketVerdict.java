@@ -0,0 +1,100 @@
+package de.feelix.sierra.check;
+
+import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
+import de.feelix.sierra.check.violation.ViolationDocument;
+import de.feelix.sierraapi.violation.MitigationStrategy;
+
+/**
+ * The PacketVerdict class accumulates the findings of all checks for the packet that is currently evaluated.
+ * <p>
+ * While a verdict is open, {@link SierraDetection#dispatch} only records its finding here. The most severe finding
+ * wins, and its side effects (logging, events, alerts and punishment) run once when the verdict is closed, so a packet
+ * triggering dozens of findings costs the same as a packet triggering one. Once a finding reaches
+ * {@link MitigationStrategy#KICK}, the {@link CheckManager} skips the remaining checks of the packet.
+ * <p>
+ * A verdict is only open on the thread evaluating the packet. Dispatches from other threads, for example from
+ * transaction tasks, are not aggregated and run their side effects immediately.
+ */
+public class PacketVerdict {
+
+    private Thread              owner;
+    private ProtocolPacketEvent event;
+    private SierraDetection     detection;
+    private ViolationDocument   document;
+    private int                 findings;
+
+    /**
+     * Opens the verdict for a packet on the current thread.
+     */
+    void open() {
+        this.owner = Thread.currentThread();
+        this.event = null;
+        this.detection = null;
+        this.document = null;
+        this.findings = 0;
+    }
+
+    /**
+     * Checks whether the current thread is evaluating a packet.
+     *
+     * @return true if findings of the current thread are recorded, false if they are dispatched immediately
+     */
+    boolean isOpen() {
+        return owner == Thread.currentThread();
+    }
+
+    /**
+     * Records a finding. The packet of the finding is cancelled, and the finding replaces the current one if it is
+     * more severe. A packet the server sends while the verdict is open is evaluated under the same verdict.
+     *
+     * @param event     the packet the violation was found in
+     * @param detection the check that found the violation
+     * @param document  the violation
+     */
+    void record(ProtocolPacketEvent event, SierraDetection detection, ViolationDocument document) {
+        if (!event.isCancelled()) {
+            detection.getPlayerData().cancelEvent(event);
+        }
+        findings++;
+
+        if (this.document == null || severity(document) > severity(this.document)) {
+            this.event = event;
+            this.detection = detection;
+            this.document = document;
+        }
+    }
+
+    /**
+     * Checks whether the verdict is already a kick or ban, so the remaining checks can be skipped.
+     *
+     * @return true if the most severe finding is at least {@link MitigationStrategy#KICK}
+     */
+    boolean isFinal() {
+        return document != null && severity(document) >= MitigationStrategy.KICK.mitigationOrdinal();
+    }
+
+    /**
+     * Closes the verdict and runs the side effects of the most severe finding, if any.
+     */
+    void close() {
+        ProtocolPacketEvent winnerEvent = this.event;
+        SierraDetection winner = this.detection;
+        ViolationDocument winnerDocument = this.document;
+        int total = this.findings;
+
+        this.owner = null;
+        this.event = null;
+        this.detection = null;
+        this.document = null;
+        this.findings = 0;
+
+        if (winner != null) {
+            winner.apply(winnerEvent, winnerDocument, total);
+        }
+    }
+
+    private static int severity(ViolationDocument document) {
+        MitigationStrategy strategy = document.getMitigationStrategy();
+        return strategy == null ? MitigationStrategy.MITIGATE.mitigationOrdinal() : strategy.mitigationOrdinal();
+    }
+}
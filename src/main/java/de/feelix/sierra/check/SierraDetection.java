@@ -3,26 +3,26 @@ package de.feelix.sierra.check;
 import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
 import com.github.retrooper.packetevents.protocol.player.User;
 import de.feelix.sierra.Sierra;
+import de.feelix.sierra.check.violation.ViolationDecay;
 import de.feelix.sierra.check.violation.ViolationDocument;
 import de.feelix.sierra.manager.config.SierraConfigEngine;
+import de.feelix.sierra.manager.event.DetectionPipeline;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.manager.storage.SierraDataManager;
+import de.feelix.sierra.manager.storage.alert.Alert;
+import de.feelix.sierra.manager.storage.alert.AlertDispatcher;
 import de.feelix.sierra.manager.storage.logger.LogTag;
 import de.feelix.sierra.utilities.FormatUtils;
-import de.feelix.sierra.utilities.message.ConfigValue;
 import de.feelix.sierraapi.check.SierraCheckData;
 import de.feelix.sierraapi.check.impl.SierraCheck;
+import de.feelix.sierraapi.events.EventBus;
+import de.feelix.sierraapi.events.impl.AsyncUserDetectionBatchEvent;
 import de.feelix.sierraapi.events.impl.AsyncUserDetectionEvent;
-import io.github.retrooper.packetevents.adventure.serializer.legacy.LegacyComponentSerializer;
-import io.github.retrooper.packetevents.util.folia.FoliaScheduler;
+import lombok.AccessLevel;
 import lombok.Getter;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.event.ClickEvent;
-import net.kyori.adventure.text.event.HoverEvent;
 import de.feelix.sierraapi.check.CheckType;
 import de.feelix.sierraapi.violation.MitigationStrategy;
 
-import java.util.Collection;
 import java.util.Collections;
 import java.util.logging.Logger;
 
@@ -32,12 +32,29 @@ import java.util.logging.Logger;
 @Getter
 public class SierraDetection implements SierraCheck {
 
+    /**
+     * Violations are stored as fixed-point numbers with this many units per violation.
+     */
+    private static final long VIOLATION_SCALE = 1000;
+
     public final PlayerData playerData;
     private final CheckType rawCheckType;
     private String friendlyName;
-    private long lastDetectionTime = 0;
     private int checkId;
-    private int violations = 0;
+
+    private volatile long lastDetectionTime = 0;
+
+    /**
+     * The violations at {@link #violationAnchorTime}, scaled by {@link #VIOLATION_SCALE}. The current violations are
+     * decayed from it when they are read, see {@link ViolationDecay}.
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile long violationAnchor = 0;
+    @Getter(AccessLevel.NONE)
+    private volatile long violationAnchorTime = 0;
+
+    @Getter(AccessLevel.NONE)
+    private volatile long lastAlertTime = 0;
 
     /**
      * Initializes a new SierraDetection instance with the provided player data.
@@ -68,19 +85,44 @@ public class SierraDetection implements SierraCheck {
 
     /**
      * Dispatches a ProtocolPacketEvent with a ViolationDocument.
+     * While the packet is evaluated by the {@link CheckManager}, the violation is only recorded into its
+     * {@link PacketVerdict}; otherwise the packet is cancelled and the violation applied immediately.
      *
      * @param event             The ProtocolPacketEvent to be dispatched.
      * @param violationDocument The ViolationDocument containing information about the violation.
      */
     public void dispatch(ProtocolPacketEvent event, ViolationDocument violationDocument) {
+        PacketVerdict verdict = playerData.getCheckManager().getVerdict();
+        if (verdict.isOpen()) {
+            verdict.record(event, this, violationDocument);
+            return;
+        }
+
         playerData.cancelEvent(event);
-        this.lastDetectionTime = System.currentTimeMillis();
+        apply(event, violationDocument, 1);
+    }
+
+    /**
+     * Applies a violation: adds it to the violations of this check, logs it, publishes the detection event, alerts
+     * the staff and punishes the player if required. The packet has already been cancelled.
+     *
+     * @param event             The ProtocolPacketEvent the violation was found in.
+     * @param violationDocument The ViolationDocument containing information about the violation.
+     * @param findings          The number of violations found in the packet, this one included.
+     */
+    void apply(ProtocolPacketEvent event, ViolationDocument violationDocument, int findings) {
+        long now = System.currentTimeMillis();
+        anchorViolations(violationsAt(now), now);
+        this.lastDetectionTime = now;
 
-        playerData.getSierraLogger().log(LogTag.DETECTION, violationDocument.toString());
+        playerData.getSierraLogger().log(
+            LogTag.DETECTION, findings > 1
+                ? violationDocument + " (" + findings + " findings in packet)"
+                : violationDocument.toString());
 
         if (playerData.isReceivedPunishment()) return;
 
-        this.violations++;
+        this.violationAnchor += VIOLATION_SCALE;
         correctViolation(violationDocument);
         throwDetectionEvent(violationDocument);
 
@@ -107,15 +149,19 @@ public class SierraDetection implements SierraCheck {
     }
 
     /**
-     * Throws a detection event asynchronously.
+     * Throws a detection event asynchronously through the {@link DetectionPipeline}.
      *
      * @param violationDocument The ViolationDocument containing information about the violation.
      */
     private void throwDetectionEvent(ViolationDocument violationDocument) {
-        FoliaScheduler.getAsyncScheduler().runNow(Sierra.getPlugin(), o -> Sierra.getPlugin()
-            .getEventBus()
-            .publish(new AsyncUserDetectionEvent(violationDocument, playerData, checkType(), this.violations))
-        );
+        EventBus eventBus = Sierra.getPlugin().getEventBus();
+        if (!eventBus.hasSubscribers(AsyncUserDetectionEvent.class)
+            && !eventBus.hasSubscribers(AsyncUserDetectionBatchEvent.class)) {
+            return;
+        }
+
+        DetectionPipeline.getInstance().submit(
+            new AsyncUserDetectionEvent(violationDocument, playerData, checkType(), violations()));
     }
 
     /**
@@ -125,7 +171,7 @@ public class SierraDetection implements SierraCheck {
      * @param violationDocument The ViolationDocument containing information about the violation.
      */
     private void logViolation(User user, ViolationDocument violationDocument) {
-        if (!Sierra.getPlugin().getSierraConfigEngine().config().getBoolean("log-violation-to-console", true)
+        if (!Sierra.getPlugin().getSierraConfigEngine().snapshot().isLogViolationToConsole()
             || violationDocument.getMitigationStrategy() == MitigationStrategy.MITIGATE) {
             return;
         }
@@ -149,83 +195,42 @@ public class SierraDetection implements SierraCheck {
     }
 
     private String createGeneralCheck() {
-        return String.format("Check Information: %s/%d - VL: %d", this.friendlyName, this.checkId, this.violations);
+        return String.format("Check Information: %s/%d - VL: %d", this.friendlyName, this.checkId,
+                             (int) violations());
     }
 
     /**
-     * Sends an alert message to staff members with information about the violation.
+     * Hands an alert about the violation to the {@link AlertDispatcher}, which renders and delivers it off the netty
+     * thread. Alerts below {@link MitigationStrategy#KICK} are sent at most once per alert cooldown for this check
+     * and player, and not at all if nobody is subscribed to them.
      *
      * @param user              The User object representing the player.
      * @param violationDocument The ViolationDocument containing information about the violation.
      */
     private void alertStaff(User user, ViolationDocument violationDocument) {
-        String staffAlert = formatStaffAlertMessage(
-            user, violationDocument.getMitigationStrategy(), violationDocument.getDescription());
-        String content = formatAlertContent(user, violationDocument);
-
-        Collection<PlayerData> playerDataList = Sierra.getPlugin().getSierraDataManager().getPlayerData().values();
-        playerDataList.forEach(playerData -> {
-            if (shouldAlertPlayer(playerData, violationDocument.getMitigationStrategy())) {
-                playerData.getUser().sendMessage(
-                    LegacyComponentSerializer.legacy('&')
-                        .deserialize(staffAlert)
-                        .clickEvent(
-                            ClickEvent.clickEvent(ClickEvent.Action.RUN_COMMAND, getPunishmentCommand(user.getName())))
-                        .hoverEvent(HoverEvent.showText(Component.text(content)))
-                );
-            }
-        });
-    }
-
-    private boolean shouldAlertPlayer(PlayerData playerData, MitigationStrategy mitigationStrategy) {
-        return (mitigationStrategy == MitigationStrategy.MITIGATE && playerData.getMitigationSettings().enabled()) ||
-               (mitigationStrategy != MitigationStrategy.MITIGATE && playerData.getAlertSettings().enabled());
-    }
-
-    private String formatStaffAlertMessage(User user, MitigationStrategy mitigationStrategy, String description) {
-        return new ConfigValue(
-            "layout.detection-message.staff-alert",
-            "{prefix} &b{username} &8┃ &f{mitigation} &b{checkname} &8┃ &3x{violations}", true
-        )
-            .colorize().replacePrefix()
-            .replace("{username}", user.getName())
-            .replace("{mitigation}", mitigationStrategy.friendlyMessage())
-            .replace("{description}", description)
-            .replace("{checkname}", this.friendlyName)
-            .replace("{violations}", String.valueOf(violations)).message();
-    }
-
-    private String formatAlertContent(User user, ViolationDocument violationDocument) {
-        return new ConfigValue(
-            "layout.detection-message.alert-content",
-            " &7Username: &b{username}{n} &7Version: &b{clientVersion}{n} &7Brand: &b{brand}{n} &7Exist since: "
-            + "&b{ticksExisted}{n} &7Game mode: &b{gameMode}{n} &7Tag: &b{tags}{n} &7Description: &b{description}{n} "
-            + "&7Debug info: &b{debugInfo}{n}{n} {alertNote}",
-            true
-        )
-            .replace("{username}", user.getName())
-            .replace("{clientVersion}", playerData.getUser().getClientVersion().getReleaseName()
-                .replace("V_", "")
-                .replace("_", "."))
-            .replace("{brand}", playerData.brand())
-            .replace("{ticksExisted}", playerData.ticksExisted() + " ticks")
-            .replace("{gameMode}", playerData.gameMode().name())
-            .replace("{description}", violationDocument.getDescription())
-            .replace("{tags}", this.friendlyName.toLowerCase())
-            .replace("{debugInfo}", FormatUtils.shortenString(violationDocument.debugInformation()))
-            .replace("{alertNote}", getAlertNote())
-            .stripped().colorize().replacePrefix().message();
-    }
-
-    private String getPunishmentCommand(String username) {
-        return new ConfigValue("layout.detection-message.alert-command", "/tp {username}", true).replace(
-            "{username}", username).message();
-    }
+        MitigationStrategy mitigationStrategy = violationDocument.getMitigationStrategy();
+        AlertDispatcher dispatcher = AlertDispatcher.getInstance();
+        if (!dispatcher.hasSubscribers(mitigationStrategy)) return;
 
-    private String getAlertNote() {
-        return new ConfigValue("layout.detection-message.alert-command-note", "&fClick to teleport", true).colorize()
-            .replacePrefix()
-            .message();
+        long now = System.currentTimeMillis();
+        if (mitigationStrategy.mitigationOrdinal() < MitigationStrategy.KICK.mitigationOrdinal()
+            && now - lastAlertTime < configEngine().snapshot().getAlertCooldownMillis()) {
+            return;
+        }
+        this.lastAlertTime = now;
+
+        dispatcher.submit(new Alert(
+            user.getName(),
+            playerData.getUser().getClientVersion().getReleaseName(),
+            playerData.brand(),
+            playerData.ticksExisted(),
+            String.valueOf(playerData.gameMode()),
+            this.friendlyName,
+            mitigationStrategy,
+            violationDocument.getDescription(),
+            violationDocument.getDebugs(),
+            (int) violations()
+        ));
     }
 
     private void handlePunishment(ViolationDocument violationDocument) {
@@ -245,8 +250,8 @@ public class SierraDetection implements SierraCheck {
 
     private void blockAddressIfEnabled(ViolationDocument violation) {
         boolean punishmentSetting = Sierra.getPlugin().getPunishmentConfig().isBan();
-        boolean blockConnections = Sierra.getPlugin().getSierraConfigEngine().config()
-            .getBoolean("block-connections-after-ban", true);
+        boolean blockConnections = Sierra.getPlugin().getSierraConfigEngine().snapshot()
+            .isBlockConnectionsAfterBan();
 
         if (violation.getMitigationStrategy() == MitigationStrategy.BAN && punishmentSetting && blockConnections) {
             Sierra.getPlugin().getAddressStorage()
@@ -263,9 +268,26 @@ public class SierraDetection implements SierraCheck {
         return Sierra.getPlugin().getSierraConfigEngine();
     }
 
+    /**
+     * Retrieves the current violations, decayed according to the {@link ViolationDecay} of the check type.
+     *
+     * @return The current violations, with a precision of 1/1000
+     */
     @Override
     public double violations() {
-        return this.violations;
+        return violationsAt(System.currentTimeMillis());
+    }
+
+    private double violationsAt(long now) {
+        ViolationDecay decay = configEngine().snapshot().violationDecay(rawCheckType);
+        long decayStart = Math.max(violationAnchorTime, lastDetectionTime + decay.getGraceMillis());
+        double decayed = decay.apply((double) violationAnchor / VIOLATION_SCALE, now - decayStart);
+        return Math.round(decayed * VIOLATION_SCALE) / (double) VIOLATION_SCALE;
+    }
+
+    private void anchorViolations(double violations, long now) {
+        this.violationAnchor = Math.round(Math.max(0, violations) * VIOLATION_SCALE);
+        this.violationAnchorTime = now;
     }
 
     @Override
@@ -275,7 +297,7 @@ public class SierraDetection implements SierraCheck {
 
     @Override
     public void setViolations(double violations) {
-        this.violations = (int) violations;
+        anchorViolations(violations, System.currentTimeMillis());
     }
 
     @Override
@@ -18,6 +18,7 @@ import de.feelix.sierra.check.SierraDetection;
 import de.feelix.sierra.check.violation.Debug;
 import de.feelix.sierra.check.violation.ViolationDocument;
 import de.feelix.sierra.manager.packet.IngoingProcessor;
+import de.feelix.sierra.manager.packet.PacketSubscription;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.utilities.CastUtil;
 import de.feelix.sierra.utilities.FieldReader;
@@ -32,6 +33,11 @@ import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @SierraCheckData(checkType = CheckType.BOOK_VALIDATION)
+@PacketSubscription(ingoing = {
+    PacketType.Play.Client.EDIT_BOOK, PacketType.Play.Client.PLUGIN_MESSAGE,
+    PacketType.Play.Client.PLAYER_BLOCK_PLACEMENT, PacketType.Play.Client.CREATIVE_INVENTORY_ACTION,
+    PacketType.Play.Client.CLICK_WINDOW
+})
 public class BookValidation extends SierraDetection implements IngoingProcessor {
 
     private String lastContent = "";
@@ -44,11 +50,11 @@ public class BookValidation extends SierraDetection implements IngoingProcessor
 
     @Override
     public void handle(PacketReceiveEvent event, PlayerData data) {
-        if (!configEngine().config().getBoolean("prevent-book-crasher", true)) {
+        if (!configEngine().snapshot().isPreventBookCrasher()) {
             return;
         }
 
-        boolean blockBooks = configEngine().config().getBoolean("disable-books-completely", false);
+        boolean blockBooks = configEngine().snapshot().isDisableBooksCompletely();
         List<String> pageList = new ArrayList<>();
 
         PacketTypeCommon packetType = event.getPacketType();
@@ -85,14 +91,16 @@ public class BookValidation extends SierraDetection implements IngoingProcessor
             return;
         }
 
-        pageList.addAll(CastUtil.getSupplier(
-            () -> new WrapperPlayClientEditBook(event), data::exceptionDisconnect).getPages());
+        pageList.addAll(CastUtil.getWrapper(
+            event, WrapperPlayClientEditBook.class, WrapperPlayClientEditBook::new,
+            data::exceptionDisconnect).getPages());
     }
 
     private void handlePluginMessage(PacketReceiveEvent event, PlayerData data, boolean blockBooks,
                                      List<String> pageList) {
-        WrapperPlayClientPluginMessage wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayClientPluginMessage(event), data::exceptionDisconnect);
+        WrapperPlayClientPluginMessage wrapper = CastUtil.getWrapper(
+            event, WrapperPlayClientPluginMessage.class, WrapperPlayClientPluginMessage::new,
+            data::exceptionDisconnect);
 
         if (wrapper.getChannelName().contains("MC|BEdit") || wrapper.getChannelName().contains("MC|BSign")) {
             processPluginMessage(event, blockBooks, pageList, wrapper);
@@ -125,8 +133,9 @@ public class BookValidation extends SierraDetection implements IngoingProcessor
 
     private void handleBlockPlacement(PacketReceiveEvent event, PlayerData data, boolean blockBooks,
                                       List<String> pageList) {
-        WrapperPlayClientPlayerBlockPlacement wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayClientPlayerBlockPlacement(event), data::exceptionDisconnect);
+        WrapperPlayClientPlayerBlockPlacement wrapper = CastUtil.getWrapper(
+            event, WrapperPlayClientPlayerBlockPlacement.class, WrapperPlayClientPlayerBlockPlacement::new,
+            data::exceptionDisconnect);
 
         if (wrapper.getItemStack().isPresent()) {
             ItemStack itemStack = wrapper.getItemStack().get();
@@ -148,8 +157,9 @@ public class BookValidation extends SierraDetection implements IngoingProcessor
             return;
         }
 
-        WrapperPlayClientCreativeInventoryAction wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayClientCreativeInventoryAction(event), data::exceptionDisconnect);
+        WrapperPlayClientCreativeInventoryAction wrapper = CastUtil.getWrapper(
+            event, WrapperPlayClientCreativeInventoryAction.class, WrapperPlayClientCreativeInventoryAction::new,
+            data::exceptionDisconnect);
 
         int slot = wrapper.getSlot();
 
@@ -197,8 +207,8 @@ public class BookValidation extends SierraDetection implements IngoingProcessor
 
     private void handleClickWindow(PacketReceiveEvent event, PlayerData data, boolean blockBooks,
                                    List<String> pageList) {
-        WrapperPlayClientClickWindow wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayClientClickWindow(event), data::exceptionDisconnect);
+        WrapperPlayClientClickWindow wrapper = CastUtil.getWrapper(
+            event, WrapperPlayClientClickWindow.class, WrapperPlayClientClickWindow::new, data::exceptionDisconnect);
 
         if (wrapper == null) return;
 
@@ -353,8 +363,8 @@ public class BookValidation extends SierraDetection implements IngoingProcessor
     private static @Nullable Triple<String, MitigationStrategy, List<Debug<?>>> checkFieldReadable(String pageContent) {
         if (FieldReader.isReadable(pageContent) && !pageContent.isEmpty() && !Sierra.getPlugin()
             .getSierraConfigEngine()
-            .config()
-            .getBoolean("skip-book-readable-check", false)) {
+            .snapshot()
+            .isSkipBookReadableCheck()) {
             return new Triple<>(
                 "interacted with an invalid item", MitigationStrategy.MITIGATE,
                 Collections.singletonList(new Debug<>("Tag", "Not readable"))
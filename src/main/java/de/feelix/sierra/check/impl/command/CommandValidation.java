@@ -10,6 +10,7 @@ import de.feelix.sierra.check.violation.Debug;
 import de.feelix.sierra.check.violation.ViolationDocument;
 import de.feelix.sierra.manager.config.SierraConfigEngine;
 import de.feelix.sierra.manager.packet.IngoingProcessor;
+import de.feelix.sierra.manager.packet.PacketSubscription;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.utilities.CastUtil;
 import de.feelix.sierraapi.check.SierraCheckData;
@@ -22,6 +23,10 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @SierraCheckData(checkType = CheckType.COMMAND_VALIDATION)
+@PacketSubscription(ingoing = {
+    PacketType.Play.Client.UPDATE_COMMAND_BLOCK, PacketType.Play.Client.CHAT_MESSAGE,
+    PacketType.Play.Client.NAME_ITEM, PacketType.Play.Client.CHAT_COMMAND
+})
 public class CommandValidation extends SierraDetection implements IngoingProcessor {
 
     private static final Pattern PLUGIN_EXCLUSION  = Pattern.compile("/(\\S+:)");
@@ -42,37 +47,41 @@ public class CommandValidation extends SierraDetection implements IngoingProcess
 
     @Override
     public void handle(PacketReceiveEvent event, PlayerData playerData) {
-        if (!configEngine().config().getBoolean("block-disallowed-commands", true)) {
+        if (!configEngine().snapshot().isBlockDisallowedCommands()) {
             return;
         }
 
         PacketTypeCommon packetType = event.getPacketType();
         if (packetType.equals(PacketType.Play.Client.UPDATE_COMMAND_BLOCK)) {
 
-            WrapperPlayClientUpdateCommandBlock commandBlockWrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientUpdateCommandBlock(event), playerData::exceptionDisconnect);
+            WrapperPlayClientUpdateCommandBlock commandBlockWrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientUpdateCommandBlock.class, WrapperPlayClientUpdateCommandBlock::new,
+                playerData::exceptionDisconnect);
 
             checkDisallowedCommand(event, commandBlockWrapper.getCommand().toLowerCase().replaceAll("\\s+",
                                                                                                     " "));
 
         } else if (packetType.equals(PacketType.Play.Client.CHAT_MESSAGE)) {
 
-            WrapperPlayClientChatMessage chatMessageWrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientChatMessage(event), playerData::exceptionDisconnect);
+            WrapperPlayClientChatMessage chatMessageWrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientChatMessage.class, WrapperPlayClientChatMessage::new,
+                playerData::exceptionDisconnect);
 
             handleChatMessage(event, chatMessageWrapper.getMessage().toLowerCase().replaceAll("\\s+",
                                                                                               " "));
         } else if (packetType.equals(PacketType.Play.Client.NAME_ITEM)) {
 
-            WrapperPlayClientNameItem nameItemWrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientNameItem(event), playerData::exceptionDisconnect);
+            WrapperPlayClientNameItem nameItemWrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientNameItem.class, WrapperPlayClientNameItem::new,
+                playerData::exceptionDisconnect);
 
             checkForLog4J(event, nameItemWrapper.getItemName().toLowerCase().replaceAll("\\s+",
                                                                                         " "));
         } else if (packetType.equals(PacketType.Play.Client.CHAT_COMMAND)) {
 
-            WrapperPlayClientChatCommand chatCommandWrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientChatCommand(event), playerData::exceptionDisconnect);
+            WrapperPlayClientChatCommand chatCommandWrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientChatCommand.class, WrapperPlayClientChatCommand::new,
+                playerData::exceptionDisconnect);
 
             handleChatMessage(event, chatCommandWrapper.getCommand().toLowerCase().replaceAll("\\s+",
                                                                                               " "));
@@ -146,10 +155,7 @@ public class CommandValidation extends SierraDetection implements IngoingProcess
     }
 
     private void checkDisallowedCommand(PacketReceiveEvent event, String commandLine) {
-        for (String disallowedCommand : Sierra.getPlugin()
-            .getSierraConfigEngine()
-            .config()
-            .getStringList("disallowed-commands")) {
+        for (String disallowedCommand : configEngine().snapshot().getDisallowedCommands()) {
             if (commandLine.contains(disallowedCommand)) {
                 if (playerHasNoPermission()) {
                     this.dispatch(event, ViolationDocument.builder()
@@ -197,10 +203,8 @@ public class CommandValidation extends SierraDetection implements IngoingProcess
     }
 
     private void checkForDoubleCommands(PacketReceiveEvent event, String message) {
-        for (String disallowedCommand : Sierra.getPlugin()
-            .getSierraConfigEngine()
-            .config()
-            .getStringList("disallowed-commands")) {
+        String pluginCommand = replaceGroup(PLUGIN_EXCLUSION.pattern(), message);
+        for (String disallowedCommand : configEngine().snapshot().getDisallowedCommands()) {
             if (message.contains(disallowedCommand)) {
                 if (playerHasNoPermission()) {
                     this.dispatch(event, ViolationDocument.builder()
@@ -210,7 +214,6 @@ public class CommandValidation extends SierraDetection implements IngoingProcess
                         .build());
                 }
             }
-            String pluginCommand = replaceGroup(PLUGIN_EXCLUSION.pattern(), message);
             if (pluginCommand.contains(disallowedCommand)) {
                 if (playerHasNoPermission()) {
                     this.dispatch(event, ViolationDocument.builder()
@@ -245,12 +248,11 @@ public class CommandValidation extends SierraDetection implements IngoingProcess
      * @return true if the player does not have the necessary permission, false otherwise
      * @see Sierra#getPlugin()
      * @see Sierra#getSierraConfigEngine()
-     * @see SierraConfigEngine#config()
+     * @see SierraConfigEngine#snapshot()
      * @see PlayerData#hasBypassPermission()
      */
     private boolean playerHasNoPermission() {
-        return !configEngine().config()
-            .getBoolean("enable-bypass-permission", false) || !playerData.hasBypassPermission();
+        return !configEngine().snapshot().isEnableBypassPermission() || !playerData.hasBypassPermission();
     }
 
     private boolean isInvalidMultiverseCommand(String testString) {
@@ -15,6 +15,7 @@ import de.feelix.sierra.check.impl.creative.impl.*;
 import de.feelix.sierra.check.violation.Debug;
 import de.feelix.sierra.check.violation.ViolationDocument;
 import de.feelix.sierra.manager.packet.IngoingProcessor;
+import de.feelix.sierra.manager.packet.PacketSubscription;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.utilities.CastUtil;
 import de.feelix.sierra.utilities.Triple;
@@ -27,6 +28,10 @@ import java.util.Arrays;
 import java.util.List;
 
 @SierraCheckData(checkType = CheckType.CREATIVE)
+@PacketSubscription(ingoing = {
+    PacketType.Play.Client.CREATIVE_INVENTORY_ACTION, PacketType.Play.Client.CLICK_WINDOW,
+    PacketType.Play.Client.PLAYER_BLOCK_PLACEMENT
+})
 public class CreativeCrasher extends SierraDetection implements IngoingProcessor {
 
     private static final int    MAX_RECURSIONS       = 30;
@@ -54,7 +59,7 @@ public class CreativeCrasher extends SierraDetection implements IngoingProcessor
             new InvalidPlainNbt()
         );
 
-        if (configEngine().config().getInt("max-enchantment-level", 5) != -1) {
+        if (configEngine().snapshot().getMaxEnchantmentLevel() != -1) {
             addCreativeChecks(new EnchantLimit());
         }
 
@@ -63,7 +68,7 @@ public class CreativeCrasher extends SierraDetection implements IngoingProcessor
 
     @Override
     public void handle(PacketReceiveEvent event, PlayerData playerData) {
-        if (!configEngine().config().getBoolean("prevent-creative-crasher", true)
+        if (!configEngine().snapshot().isPreventCreativeCrasher()
             || playerData == null) {
             return;
         }
@@ -85,16 +90,19 @@ public class CreativeCrasher extends SierraDetection implements IngoingProcessor
         PacketTypeCommon packetType = event.getPacketType();
         if (packetType.equals(PacketType.Play.Client.CREATIVE_INVENTORY_ACTION)) {
             if (playerData.getGameMode() != GameMode.CREATIVE) return null;
-            return CastUtil.getSupplier(
-                    () -> new WrapperPlayClientCreativeInventoryAction(event), playerData::exceptionDisconnect)
+            return CastUtil.getWrapper(
+                    event, WrapperPlayClientCreativeInventoryAction.class, WrapperPlayClientCreativeInventoryAction::new,
+                    playerData::exceptionDisconnect)
                 .getItemStack();
         } else if (packetType.equals(PacketType.Play.Client.CLICK_WINDOW)) {
-            WrapperPlayClientClickWindow clickWrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientClickWindow(event), playerData::exceptionDisconnect);
+            WrapperPlayClientClickWindow clickWrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientClickWindow.class, WrapperPlayClientClickWindow::new,
+                playerData::exceptionDisconnect);
             return clickWrapper != null ? clickWrapper.getCarriedItemStack() : null;
         } else if (packetType.equals(PacketType.Play.Client.PLAYER_BLOCK_PLACEMENT)) {
-            WrapperPlayClientPlayerBlockPlacement blockPlacementWrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientPlayerBlockPlacement(event), playerData::exceptionDisconnect);
+            WrapperPlayClientPlayerBlockPlacement blockPlacementWrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientPlayerBlockPlacement.class, WrapperPlayClientPlayerBlockPlacement::new,
+                playerData::exceptionDisconnect);
             return blockPlacementWrapper != null ? blockPlacementWrapper.getItemStack().orElse(null) : null;
         }
         return null;
@@ -25,7 +25,7 @@ public class BooksProtocol implements ItemCheck {
     public Triple<String, MitigationStrategy, List<Debug<?>>> handleCheck(PacketReceiveEvent event, ItemStack clickedStack,
                                                                           NBTCompound nbtCompound, PlayerData playerData) {
 
-        if (!Sierra.getPlugin().getSierraConfigEngine().config().getBoolean("disable-books-completely", false)) {
+        if (!Sierra.getPlugin().getSierraConfigEngine().snapshot().isDisableBooksCompletely()) {
             return null;
         }
 
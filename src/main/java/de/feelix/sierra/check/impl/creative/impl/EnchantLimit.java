@@ -8,6 +8,7 @@ import com.github.retrooper.packetevents.protocol.nbt.NBTList;
 import com.github.retrooper.packetevents.protocol.nbt.NBTNumber;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.config.ConfigSnapshot;
 import de.feelix.sierra.check.impl.creative.ItemCheck;
 import de.feelix.sierra.check.violation.Debug;
 import de.feelix.sierra.manager.storage.PlayerData;
@@ -48,13 +49,10 @@ public class EnchantLimit implements ItemCheck {
 
                     if (number == null) return null;
 
-                    if ((number.getAsInt() < 0 && !Sierra.getPlugin()
-                        .getSierraConfigEngine()
-                        .config()
-                        .getBoolean("allow-negative-enchantments", false)) || number.getAsInt() > Sierra.getPlugin()
-                        .getSierraConfigEngine()
-                        .config()
-                        .getInt("max-enchantment-level", 5)) {
+                    ConfigSnapshot snapshot = Sierra.getPlugin().getSierraConfigEngine().snapshot();
+
+                    if ((number.getAsInt() < 0 && !snapshot.isAllowNegativeEnchantments())
+                        || number.getAsInt() > snapshot.getMaxEnchantmentLevel()) {
 
                         return new Triple<>(
                             "interacted on an item with invalid level", MitigationStrategy.KICK,
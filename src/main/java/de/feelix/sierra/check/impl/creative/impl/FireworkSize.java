@@ -32,8 +32,8 @@ public class FireworkSize implements ItemCheck {
 
         if (event.getPacketType() == PacketType.Play.Client.PLAYER_BLOCK_PLACEMENT) {
 
-            WrapperPlayClientPlayerBlockPlacement wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientPlayerBlockPlacement(event),
+            WrapperPlayClientPlayerBlockPlacement wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientPlayerBlockPlacement.class, WrapperPlayClientPlayerBlockPlacement::new,
                 playerData::exceptionDisconnect
             );
 
@@ -46,8 +46,8 @@ public class FireworkSize implements ItemCheck {
                 }
             }
         } else if (event.getPacketType() == PacketType.Play.Client.CLICK_WINDOW) {
-            WrapperPlayClientClickWindow wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientClickWindow(event),
+            WrapperPlayClientClickWindow wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientClickWindow.class, WrapperPlayClientClickWindow::new,
                 playerData::exceptionDisconnect
             );
             if (wrapper.getCarriedItemStack() != null) {
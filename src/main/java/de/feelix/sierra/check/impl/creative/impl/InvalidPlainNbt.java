@@ -99,16 +99,16 @@ public class InvalidPlainNbt implements ItemCheck {
                                                                           NBTCompound nbtCompound, PlayerData playerData) {
 
         if (event.getPacketType() == PacketType.Play.Client.PLAYER_BLOCK_PLACEMENT) {
-            WrapperPlayClientPlayerBlockPlacement wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientPlayerBlockPlacement(event),
+            WrapperPlayClientPlayerBlockPlacement wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientPlayerBlockPlacement.class, WrapperPlayClientPlayerBlockPlacement::new,
                 playerData::exceptionDisconnect
             );
             if (wrapper.getItemStack().isPresent()) {
                 return invalidNbt(wrapper.getItemStack().get());
             }
         } else if (event.getPacketType() == PacketType.Play.Client.CLICK_WINDOW) {
-            WrapperPlayClientClickWindow wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientClickWindow(event),
+            WrapperPlayClientClickWindow wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientClickWindow.class, WrapperPlayClientClickWindow::new,
                 playerData::exceptionDisconnect
             );
             return invalidNbt(wrapper.getCarriedItemStack());
@@ -11,25 +11,25 @@ import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientPl
 import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientPluginMessage;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerCloseWindow;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerOpenWindow;
-import de.feelix.sierra.Sierra;
 import de.feelix.sierra.check.SierraDetection;
 import de.feelix.sierra.check.violation.Debug;
 import de.feelix.sierra.check.violation.ViolationDocument;
+import de.feelix.sierra.manager.config.ConfigSnapshot;
 import de.feelix.sierra.manager.init.impl.start.Ticker;
 import de.feelix.sierra.manager.packet.IngoingProcessor;
 import de.feelix.sierra.manager.packet.OutgoingProcessor;
+import de.feelix.sierra.manager.packet.PacketSubscription;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.utilities.CastUtil;
 import de.feelix.sierraapi.check.CheckType;
 import de.feelix.sierraapi.check.SierraCheckData;
 import de.feelix.sierraapi.violation.MitigationStrategy;
-import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 
 @SierraCheckData(checkType = CheckType.FREQUENCY)
+@PacketSubscription(outgoing = {PacketType.Play.Server.OPEN_WINDOW})
 public class FrequencyDetection extends SierraDetection implements IngoingProcessor, OutgoingProcessor {
 
     private int lastBookEditTick = 0;
@@ -51,7 +51,10 @@ public class FrequencyDetection extends SierraDetection implements IngoingProces
 
     boolean hasGottenMovementAfterTransaction = false;
 
-    private final HashMap<PacketTypeCommon, Integer> packetCounts = new HashMap<>();
+    private final PacketRateLimiter rateLimiter = new PacketRateLimiter();
+
+    // The configuration the rate limiter was filled with; the buckets are refilled once it is reloaded
+    private ConfigSnapshot rateLimitSnapshot;
 
     public FrequencyDetection(PlayerData playerData) {
         super(playerData);
@@ -60,33 +63,44 @@ public class FrequencyDetection extends SierraDetection implements IngoingProces
     @Override
     public void handle(PacketReceiveEvent event, PlayerData playerData) {
 
-        if (!configEngine().config().getBoolean("prevent-packet-frequency", true)) {
+        if (!configEngine().snapshot().isPreventPacketFrequency()) {
             return;
         }
 
         playerData.getTimingProcessor().getFrequencyTask().prepare();
+        try {
+            handlePacket(event, playerData);
+        } finally {
+            playerData.getTimingProcessor().getFrequencyTask().end();
+        }
+    }
+
+    private void handlePacket(PacketReceiveEvent event, PlayerData playerData) {
         PacketTypeCommon packetType = event.getPacketType();
 
-        if (!WrapperPlayClientPlayerFlying.isFlying(event.getPacketType())) {
+        if (!WrapperPlayClientPlayerFlying.isFlying(packetType) && packetType instanceof PacketType.Play.Client) {
+            ConfigSnapshot snapshot = configEngine().snapshot();
 
-            YamlConfiguration configuration = Sierra.getPlugin().getSierraConfigEngine().config();
-            if (configuration.getStringList("excluded-packets-from-limit").contains(packetType.getName())) return;
+            if (snapshot.isExcludedFromLimit(packetType)) return;
 
-            long current = System.currentTimeMillis();
+            if (snapshot != rateLimitSnapshot) {
+                rateLimitSnapshot = snapshot;
+                rateLimiter.reset();
+            }
 
-            packetCounts.merge(packetType, 1, Integer::sum);
+            long current = System.currentTimeMillis();
 
-            int limit = retrieveLimitFromConfiguration(packetType);
-            int packetCount = packetCounts.getOrDefault(packetType, 0);
+            PacketType.Play.Client clientType = (PacketType.Play.Client) packetType;
+            int limit = snapshot.frequencyLimit(packetType);
 
-            if (packetCount > limit) {
+            if (!rateLimiter.tryAcquire(clientType, limit, System.nanoTime())) {
                 this.dispatch(event, ViolationDocument.builder()
                     .description("is sending packets too frequent")
                     .mitigationStrategy(MitigationStrategy.KICK)
                     .debugs(Arrays.asList(
                         new Debug<>("Packet", packetType.getName()),
                         new Debug<>("Limit", limit),
-                        new Debug<>("Count", packetCount),
+                        new Debug<>("Count", rateLimiter.used(clientType, limit)),
                         new Debug<>("Alive", playerData.getPingProcessor().getPing()),
                         new Debug<>("Transaction", playerData.getTransactionProcessor().getTransactionPing()),
                         new Debug<>("Version", playerData.getClientVersion().getReleaseName()),
@@ -95,8 +109,6 @@ public class FrequencyDetection extends SierraDetection implements IngoingProces
                     .build());
                 return;
             }
-        } else {
-            this.packetCounts.clear();
         }
 
         if (packetType.equals(PacketType.Play.Client.EDIT_BOOK)) {
@@ -120,9 +132,10 @@ public class FrequencyDetection extends SierraDetection implements IngoingProces
         hasGottenMovementAfterTransaction = true;
         timerBalanceRealTime += (long) 50e6;
 
-        doCheck(event);
+        // The timer balance is synced with the next transaction
+        playerData.getTransactionProcessor().requestTransaction();
 
-        playerData.getTimingProcessor().getFrequencyTask().end();
+        doCheck(event);
     }
 
     // Check from: https://github.com/GrimAnticheat/Grim -> Credits to MWHunter
@@ -172,20 +185,6 @@ public class FrequencyDetection extends SierraDetection implements IngoingProces
                packetType == PacketType.Play.Client.WINDOW_CONFIRMATION;
     }
 
-    private int retrieveLimitFromConfiguration(PacketTypeCommon packetType) {
-
-        int limit = configEngine().config().getInt("generic-packet-frequency-default", 50);
-        for (String string : configEngine().config().getStringList("generic-packet-frequency-limit")) {
-
-            String[] parts = string.split(":");
-            if (parts[0].equals(packetType.getName())) {
-                limit = Integer.parseInt(parts[1]);
-                break;
-            }
-        }
-        return limit;
-    }
-
     private void handleEditBook(PacketReceiveEvent event) {
         if (isSpamming(lastBookEditTick)) {
             this.dispatch(event, ViolationDocument.builder()
@@ -197,8 +196,9 @@ public class FrequencyDetection extends SierraDetection implements IngoingProces
     }
 
     private void handlePluginMessage(PacketReceiveEvent event, PlayerData playerData) {
-        WrapperPlayClientPluginMessage wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayClientPluginMessage(event), playerData::exceptionDisconnect);
+        WrapperPlayClientPluginMessage wrapper = CastUtil.getWrapper(
+            event, WrapperPlayClientPluginMessage.class, WrapperPlayClientPluginMessage::new,
+            playerData::exceptionDisconnect);
 
         String channelName = wrapper.getChannelName();
         if (channelName.contains("MC|BEdit") || channelName.contains("MC|BSign")) {
@@ -227,8 +227,9 @@ public class FrequencyDetection extends SierraDetection implements IngoingProces
     }
 
     private void handlePlayerDigging(PacketReceiveEvent event, PlayerData playerData) {
-        WrapperPlayClientPlayerDigging wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayClientPlayerDigging(event), playerData::exceptionDisconnect);
+        WrapperPlayClientPlayerDigging wrapper = CastUtil.getWrapper(
+            event, WrapperPlayClientPlayerDigging.class, WrapperPlayClientPlayerDigging::new,
+            playerData::exceptionDisconnect);
 
         if (wrapper.getAction() == DiggingAction.DROP_ITEM) {
             int currentTick = Ticker.getInstance().getCurrentTick();
@@ -263,8 +264,9 @@ public class FrequencyDetection extends SierraDetection implements IngoingProces
     @Override
     public void handle(PacketSendEvent event, PlayerData playerData) {
         if (event.getPacketType() == PacketType.Play.Server.OPEN_WINDOW) {
-            WrapperPlayServerOpenWindow window = CastUtil.getSupplier(
-                () -> new WrapperPlayServerOpenWindow(event), playerData::exceptionDisconnect);
+            WrapperPlayServerOpenWindow window = CastUtil.getWrapper(
+                event, WrapperPlayServerOpenWindow.class, WrapperPlayServerOpenWindow::new,
+                playerData::exceptionDisconnect);
             this.containerId = window.getContainerId();
         }
     }
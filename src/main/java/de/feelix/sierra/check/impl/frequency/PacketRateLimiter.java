@@ -0,0 +1,80 @@
+package de.feelix.sierra.check.impl.frequency;
+
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+
+/**
+ * The PacketRateLimiter class holds a token bucket for every incoming play packet type of a single player.
+ * <p>
+ * A bucket holds up to the frequency limit of its packet type and refills at the same number of tokens per second, so
+ * the limit is a real per second rate, independent of how often the client sends flying packets. The buckets are dense
+ * primitive arrays indexed by the ordinal of the packet type, so counting a packet neither boxes nor hashes.
+ * Resetting all buckets is O(1): every bucket is stamped with the epoch it was filled in, and a bucket of an older epoch
+ * is refilled completely on its next use.
+ * <p>
+ * An instance is not thread-safe; it is only used from the event loop of its player.
+ */
+public class PacketRateLimiter {
+
+    private static final int  PACKET_TYPES     = PacketType.Play.Client.values().length;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * The tokens of every bucket, scaled by {@link #NANOS_PER_SECOND} so refilling never drops a fraction.
+     */
+    private final long[] tokens     = new long[PACKET_TYPES];
+    private final long[] lastRefill = new long[PACKET_TYPES];
+    private final int[]  epochs     = new int[PACKET_TYPES];
+
+    private int epoch = 1;
+
+    /**
+     * Refills all buckets completely on their next use.
+     */
+    public void reset() {
+        epoch++;
+    }
+
+    /**
+     * Takes a token from the bucket of the given packet type.
+     *
+     * @param packetType The incoming packet type
+     * @param limit      The number of packets allowed per second
+     * @param now        The current value of {@link System#nanoTime()}
+     * @return true if the packet is within the limit, false if the bucket is empty
+     */
+    public boolean tryAcquire(PacketType.Play.Client packetType, int limit, long now) {
+        if (limit <= 0) return false;
+
+        int index = packetType.ordinal();
+        long capacity = limit * NANOS_PER_SECOND;
+
+        if (epochs[index] != epoch) {
+            epochs[index] = epoch;
+            tokens[index] = capacity;
+        } else {
+            // An empty bucket is full again after one second
+            long elapsed = Math.min(NANOS_PER_SECOND, Math.max(0, now - lastRefill[index]));
+            tokens[index] = Math.min(capacity, tokens[index] + elapsed * limit);
+        }
+        lastRefill[index] = now;
+
+        if (tokens[index] < NANOS_PER_SECOND) return false;
+
+        tokens[index] -= NANOS_PER_SECOND;
+        return true;
+    }
+
+    /**
+     * Retrieves the number of tokens taken from the bucket of the given packet type, as of its last use.
+     *
+     * @param packetType The incoming packet type
+     * @param limit      The number of packets allowed per second
+     * @return The number of packets counted against the limit
+     */
+    public int used(PacketType.Play.Client packetType, int limit) {
+        int index = packetType.ordinal();
+        if (epochs[index] != epoch) return 0;
+
+        return limit - (int) (tokens[index] / NANOS_PER_SECOND);
+    }
+}
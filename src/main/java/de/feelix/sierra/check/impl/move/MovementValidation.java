@@ -12,6 +12,7 @@ import de.feelix.sierra.check.SierraDetection;
 import de.feelix.sierra.check.violation.Debug;
 import de.feelix.sierra.check.violation.ViolationDocument;
 import de.feelix.sierra.manager.packet.IngoingProcessor;
+import de.feelix.sierra.manager.packet.PacketSubscription;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.manager.storage.SierraDataManager;
 import de.feelix.sierra.utilities.CastUtil;
@@ -24,6 +25,11 @@ import java.util.Arrays;
 import java.util.Collections;
 
 @SierraCheckData(checkType = CheckType.MOVEMENT_VALIDATION)
+@PacketSubscription(ingoing = {
+    PacketType.Play.Client.PLAYER_FLYING, PacketType.Play.Client.PLAYER_POSITION,
+    PacketType.Play.Client.PLAYER_POSITION_AND_ROTATION, PacketType.Play.Client.PLAYER_ROTATION,
+    PacketType.Play.Client.VEHICLE_MOVE, PacketType.Play.Client.PONG, PacketType.Play.Client.WINDOW_CONFIRMATION
+})
 public class MovementValidation extends SierraDetection implements IngoingProcessor {
 
     private double lastChunkId = -1;
@@ -48,25 +54,28 @@ public class MovementValidation extends SierraDetection implements IngoingProces
 
     @Override
     public void handle(PacketReceiveEvent event, PlayerData data) {
-        if (!configEngine().config().getBoolean("prevent-protocol-move", true)) {
+        if (!configEngine().snapshot().isPreventProtocolMove()) {
             return;
         }
 
         data.getTimingProcessor().getMovementTask().prepare();
-        handleLatencyAbuse(event, data);
+        try {
+            handleLatencyAbuse(event, data);
 
-        if (WrapperPlayClientPlayerFlying.isFlying(event.getPacketType())) {
-            handleFlyingPacket(event, data);
-        } else if (event.getPacketType() == PacketType.Play.Client.VEHICLE_MOVE) {
-            handleVehicleMove(event, data);
+            if (WrapperPlayClientPlayerFlying.isFlying(event.getPacketType())) {
+                handleFlyingPacket(event, data);
+            } else if (event.getPacketType() == PacketType.Play.Client.VEHICLE_MOVE) {
+                handleVehicleMove(event, data);
+            }
+        } finally {
+            data.getTimingProcessor().getMovementTask().end();
         }
-
-        data.getTimingProcessor().getMovementTask().end();
     }
 
     private void handleFlyingPacket(PacketReceiveEvent event, PlayerData playerData) {
-        WrapperPlayClientPlayerFlying wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayClientPlayerFlying(event), playerData::exceptionDisconnect);
+        WrapperPlayClientPlayerFlying wrapper = CastUtil.getWrapper(
+            event, WrapperPlayClientPlayerFlying.class, WrapperPlayClientPlayerFlying::new,
+            playerData::exceptionDisconnect);
 
         if (wrapper.hasRotationChanged()) {
             checkInvalidRotation(wrapper, event);
@@ -91,7 +100,7 @@ public class MovementValidation extends SierraDetection implements IngoingProces
     }
 
     private void handleLatencyAbuse(PacketReceiveEvent event, PlayerData data) {
-        if (!configEngine().config().getBoolean("prevent-timer-cheats", true)) {
+        if (!configEngine().snapshot().isPreventTimerCheats()) {
             return;
         }
 
@@ -106,6 +115,9 @@ public class MovementValidation extends SierraDetection implements IngoingProces
         hasGottenMovementAfterTransaction = true;
         timerBalanceRealTime += (long) 50e6;
 
+        // The timer balance is synced with the next transaction
+        data.getTransactionProcessor().requestTransaction();
+
         doCheck(event);
     }
 
@@ -148,8 +160,8 @@ public class MovementValidation extends SierraDetection implements IngoingProces
     }
 
     private void handleVehicleMove(PacketReceiveEvent event, PlayerData data) {
-        WrapperPlayClientVehicleMove wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayClientVehicleMove(event), data::exceptionDisconnect);
+        WrapperPlayClientVehicleMove wrapper = CastUtil.getWrapper(
+            event, WrapperPlayClientVehicleMove.class, WrapperPlayClientVehicleMove::new, data::exceptionDisconnect);
 
         Vector3d location = wrapper.getPosition();
 
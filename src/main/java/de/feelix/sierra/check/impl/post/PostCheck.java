@@ -15,6 +15,7 @@ import de.feelix.sierra.check.violation.Debug;
 import de.feelix.sierra.check.violation.ViolationDocument;
 import de.feelix.sierra.manager.packet.IngoingProcessor;
 import de.feelix.sierra.manager.packet.OutgoingProcessor;
+import de.feelix.sierra.manager.packet.PacketSubscription;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.utilities.EvictingQueue;
 import de.feelix.sierraapi.check.CheckType;
@@ -30,6 +31,7 @@ import java.util.Locale;
 import static com.github.retrooper.packetevents.protocol.packettype.PacketType.Play.Client.*;
 
 @SierraCheckData(checkType = CheckType.POST)
+@PacketSubscription(outgoing = {PacketType.Play.Server.ENTITY_ANIMATION})
 public class PostCheck extends SierraDetection implements IngoingProcessor, OutgoingProcessor {
 
     public PostCheck(PlayerData playerData) {
@@ -42,7 +44,7 @@ public class PostCheck extends SierraDetection implements IngoingProcessor, Outg
     private boolean hasSentFlyingPacket = false;
 
     private void handleFlyingPacket(PacketReceiveEvent event) {
-        if (!flags.isEmpty() && configEngine().config().getBoolean("prevent-post-packets", true)) {
+        if (!flags.isEmpty() && configEngine().snapshot().isPreventPostPackets()) {
 
             // Okay, the user might be cheating, let's double check
             // 1.8 clients have the idle packet, and this shouldn't false on 1.8 clients
@@ -80,6 +82,8 @@ public class PostCheck extends SierraDetection implements IngoingProcessor, Outg
     private void handleOtherPackets(PacketTypeCommon packetType, PacketReceiveEvent event) {
         if (shouldQueuePostCheck(packetType, event)) {
             postQueue.add(packetType);
+            // The next transaction tells if the packet was sent post
+            playerData.getTransactionProcessor().requestTransaction();
         }
     }
 
@@ -26,27 +26,32 @@ import de.feelix.sierra.check.SierraDetection;
 import de.feelix.sierra.check.impl.command.CommandValidation;
 import de.feelix.sierra.check.violation.Debug;
 import de.feelix.sierra.check.violation.ViolationDocument;
+import de.feelix.sierra.manager.config.ConfigSnapshot;
 import de.feelix.sierra.manager.packet.IngoingProcessor;
 import de.feelix.sierra.manager.packet.OutgoingProcessor;
+import de.feelix.sierra.manager.packet.PacketSubscription;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.manager.storage.SierraDataManager;
+import de.feelix.sierra.manager.storage.limit.TokenBucket;
 import de.feelix.sierra.manager.storage.menu.MenuType;
 import de.feelix.sierra.utilities.CastUtil;
 import de.feelix.sierra.utilities.FieldReader;
 import de.feelix.sierra.utilities.FormatUtils;
 import de.feelix.sierra.utilities.attributes.AttributeMapper;
+import de.feelix.sierra.utilities.nbt.NBTAnalysis;
 import de.feelix.sierra.utilities.types.BannerType;
 import de.feelix.sierra.utilities.types.ShulkerBoxType;
 import de.feelix.sierraapi.check.CheckType;
 import de.feelix.sierraapi.check.SierraCheckData;
 import de.feelix.sierraapi.violation.MitigationStrategy;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -55,6 +60,9 @@ import java.util.regex.Pattern;
 import static com.github.retrooper.packetevents.protocol.nbt.NBTType.*;
 
 @SierraCheckData(checkType = CheckType.PROTOCOL_VALIDATION)
+@PacketSubscription(outgoing = {
+    PacketType.Play.Server.SET_EXPERIENCE, PacketType.Play.Server.WINDOW_ITEMS, PacketType.Play.Server.OPEN_WINDOW
+})
 public class ProtocolValidation extends SierraDetection implements IngoingProcessor, OutgoingProcessor {
 
     private MenuType type = MenuType.UNKNOWN;
@@ -67,7 +75,12 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
     private int containerId = -1;
 
     private static final String WURSTCLIENT_URL = "www.wurstclient.net";
+    private static final String TRANSLATE = "translate";
+    private static final String SNOOPER_DESCRIPTION = "options.snooper.desc";
+    private static final String EXTRA_ARRAY = ":[{extra:[{";
     private static final int MAX_BYTE_SIZE = 262144;
+    private static final int MAX_ENCODED_TAG_LENGTH = 10000;
+    private static final int MAX_FIREWORK_STAR_LENGTH = 800;
     private static final int MAX_BANNER_LAYERS = 15;
     private static final int MAX_PATTERN_LENGTH = 50;
     private static final int MIN_VALID_COLOR = 0;
@@ -75,13 +88,35 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
     private static final int MAX_VALID_COLOR = 255;
     private final AtomicInteger listContent = new AtomicInteger(0);
 
+    /**
+     * Analysis of the item stack NBT currently validated, shared by the NBT checks of {@link #checkItemStack}.
+     */
+    private final NBTAnalysis nbtAnalysis = new NBTAnalysis(
+        TRANSLATE, SNOOPER_DESCRIPTION, EXTRA_ARRAY, WURSTCLIENT_URL);
+    private NBTCompound analyzedCompound;
+
+    /**
+     * Incoming packet types inspected by the type specific handlers. Every other packet only passes the size checks.
+     */
+    private static final Set<PacketType.Play.Client> INSPECTED_PACKETS = EnumSet.of(
+        PacketType.Play.Client.PLUGIN_MESSAGE, PacketType.Play.Client.CLOSE_WINDOW,
+        PacketType.Play.Client.CLIENT_SETTINGS, PacketType.Play.Client.CREATIVE_INVENTORY_ACTION,
+        PacketType.Play.Client.ENTITY_ACTION, PacketType.Play.Client.SPECTATE,
+        PacketType.Play.Client.CLICK_WINDOW_BUTTON, PacketType.Play.Client.CHAT_MESSAGE,
+        PacketType.Play.Client.HELD_ITEM_CHANGE, PacketType.Play.Client.TAB_COMPLETE,
+        PacketType.Play.Client.UPDATE_SIGN, PacketType.Play.Client.PLAYER_BLOCK_PLACEMENT,
+        PacketType.Play.Client.STEER_VEHICLE, PacketType.Play.Client.INTERACT_ENTITY,
+        PacketType.Play.Client.NAME_ITEM, PacketType.Play.Client.PLAYER_DIGGING,
+        PacketType.Play.Client.USE_ITEM, PacketType.Play.Client.CLICK_WINDOW
+    );
+
     public ProtocolValidation(PlayerData playerData) {
         super(playerData);
     }
 
     @Override
     public void handle(PacketReceiveEvent event, PlayerData playerData) {
-        if (!configEngine().config().getBoolean("prevent-protocol-packet", true)) {
+        if (!configEngine().snapshot().isPreventProtocolPacket()) {
             return;
         }
 
@@ -97,20 +132,9 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
                 .build());
         }
 
-        int readableBytes = ByteBufHelper.readableBytes(event.getByteBuf());
-        int maxBytesPerSecond = 64000 * (playerData.getClientVersion().isOlderThan(ClientVersion.V_1_8) ? 2 : 1);
-        playerData.setBytesSent(playerData.getBytesSent() + readableBytes);
+        checkBandwidth(event, playerData);
 
-        if (playerData.getBytesSent() > maxBytesPerSecond) {
-            dispatch(event, ViolationDocument.builder()
-                .mitigationStrategy(MitigationStrategy.KICK)
-                .description("sends too big packet in a second")
-                .debugs(Arrays.asList(
-                    new Debug<>("Bytes", playerData.getBytesSent()),
-                    new Debug<>("Max Bytes", maxBytesPerSecond)
-                ))
-                .build());
-        }
+        if (!INSPECTED_PACKETS.contains(event.getPacketType())) return;
 
         handleAnvilInventory(event);
         handleClientSettings(event, playerData);
@@ -132,10 +156,54 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         handlePluginMessage(event, playerData);
     }
 
+    /**
+     * Takes the bytes and the packet from the token buckets of the player. Unlike a counter reset once per second,
+     * the buckets refill continuously, so a client can not send twice the limit across a reset.
+     */
+    private void checkBandwidth(PacketReceiveEvent event, PlayerData playerData) {
+        ConfigSnapshot snapshot = configEngine().snapshot();
+        long now = System.nanoTime();
+
+        int readableBytes = ByteBufHelper.readableBytes(event.getByteBuf());
+        int multiplier = playerData.getClientVersion().isOlderThan(ClientVersion.V_1_8) ? 2 : 1;
+        int bytesPerSecond = snapshot.getBandwidthBytesPerSecond() * multiplier;
+        int bytesBurst = snapshot.getBandwidthBytesBurst() * multiplier;
+        TokenBucket byteLimit = playerData.getByteLimit();
+
+        if (!byteLimit.tryAcquire(readableBytes, bytesPerSecond, bytesBurst, now)) {
+            dispatch(event, ViolationDocument.builder()
+                .mitigationStrategy(MitigationStrategy.KICK)
+                .description("sends too big packet in a second")
+                .debugs(Arrays.asList(
+                    new Debug<>("Bytes", readableBytes),
+                    new Debug<>("Available", (int) byteLimit.available()),
+                    new Debug<>("Max Bytes", bytesPerSecond)
+                ))
+                .build());
+            return;
+        }
+
+        int packetsPerSecond = snapshot.getBandwidthPacketsPerSecond();
+        if (packetsPerSecond == -1) return;
+
+        TokenBucket packetLimit = playerData.getPacketLimit();
+        if (!packetLimit.tryAcquire(1, packetsPerSecond, snapshot.getBandwidthPacketsBurst(), now)) {
+            dispatch(event, ViolationDocument.builder()
+                .mitigationStrategy(MitigationStrategy.KICK)
+                .description("sends too many packets in a second")
+                .debugs(Arrays.asList(
+                    new Debug<>("Packet", event.getPacketType().getName()),
+                    new Debug<>("Max Packets", packetsPerSecond)
+                ))
+                .build());
+        }
+    }
+
     private void handleAnvilInventory(PacketReceiveEvent event) {
         if (event.getPacketType() == PacketType.Play.Client.PLUGIN_MESSAGE) {
-            WrapperPlayClientPluginMessage wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientPluginMessage(event), playerData::exceptionDisconnect);
+            WrapperPlayClientPluginMessage wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientPluginMessage.class, WrapperPlayClientPluginMessage::new,
+                playerData::exceptionDisconnect);
 
             String channelName = wrapper.getChannelName();
 
@@ -154,8 +222,9 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
 
     private void handleClientSettings(PacketReceiveEvent event, PlayerData playerData) {
         if (event.getPacketType() == PacketType.Play.Client.CLIENT_SETTINGS) {
-            WrapperPlayClientSettings wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientSettings(event), playerData::exceptionDisconnect);
+            WrapperPlayClientSettings wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientSettings.class, WrapperPlayClientSettings::new,
+                playerData::exceptionDisconnect);
 
             if (wrapper == null) return;
 
@@ -194,8 +263,9 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
 
     private void handleCreativeInventoryAction(PacketReceiveEvent event, PlayerData playerData) {
         if (event.getPacketType() == PacketType.Play.Client.CREATIVE_INVENTORY_ACTION) {
-            WrapperPlayClientCreativeInventoryAction wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientCreativeInventoryAction(event), playerData::exceptionDisconnect);
+            WrapperPlayClientCreativeInventoryAction wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientCreativeInventoryAction.class, WrapperPlayClientCreativeInventoryAction::new,
+                playerData::exceptionDisconnect);
             ItemStack itemStack = wrapper.getItemStack();
             checkItemStack(event, itemStack);
         }
@@ -203,8 +273,9 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
 
     private void handleEntityAction(PacketReceiveEvent event) {
         if (event.getPacketType() == PacketType.Play.Client.ENTITY_ACTION) {
-            WrapperPlayClientEntityAction wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientEntityAction(event), playerData::exceptionDisconnect);
+            WrapperPlayClientEntityAction wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientEntityAction.class, WrapperPlayClientEntityAction::new,
+                playerData::exceptionDisconnect);
             checkEntityAction(wrapper, event);
         }
     }
@@ -233,8 +304,9 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
 
     private void handleClickWindowButton(PacketReceiveEvent event) {
         if (event.getPacketType() == PacketType.Play.Client.CLICK_WINDOW_BUTTON) {
-            WrapperPlayClientClickWindowButton wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientClickWindowButton(event), playerData::exceptionDisconnect);
+            WrapperPlayClientClickWindowButton wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientClickWindowButton.class, WrapperPlayClientClickWindowButton::new,
+                playerData::exceptionDisconnect);
             if (wrapper.getButtonId() < 0 || wrapper.getWindowId() < 0) {
 
                 dispatch(event, ViolationDocument.builder()
@@ -251,8 +323,9 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
 
     private void handleChatMessage(PacketReceiveEvent event) {
         if (event.getPacketType() == PacketType.Play.Client.CHAT_MESSAGE) {
-            WrapperPlayClientChatMessage wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientChatMessage(event), playerData::exceptionDisconnect);
+            WrapperPlayClientChatMessage wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientChatMessage.class, WrapperPlayClientChatMessage::new,
+                playerData::exceptionDisconnect);
             if (wrapper.getMessage().contains("${")) {
 
                 dispatch(event, ViolationDocument.builder()
@@ -266,8 +339,9 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
 
     private void handleHeldItemChange(PacketReceiveEvent event) {
         if (event.getPacketType() == PacketType.Play.Client.HELD_ITEM_CHANGE) {
-            WrapperPlayClientHeldItemChange wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientHeldItemChange(event), playerData::exceptionDisconnect);
+            WrapperPlayClientHeldItemChange wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientHeldItemChange.class, WrapperPlayClientHeldItemChange::new,
+                playerData::exceptionDisconnect);
             checkHeldItemChange(wrapper, event);
         }
     }
@@ -304,8 +378,9 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
 
     private void handleTabComplete(PacketReceiveEvent event, PlayerData playerData) {
         if (event.getPacketType() == PacketType.Play.Client.TAB_COMPLETE) {
-            WrapperPlayClientTabComplete wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientTabComplete(event), playerData::exceptionDisconnect);
+            WrapperPlayClientTabComplete wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientTabComplete.class, WrapperPlayClientTabComplete::new,
+                playerData::exceptionDisconnect);
             checkTabComplete(wrapper, event);
         }
     }
@@ -363,8 +438,9 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
 
     private void handleUpdateSign(PacketReceiveEvent event, PlayerData playerData) {
         if (event.getPacketType() == PacketType.Play.Client.UPDATE_SIGN) {
-            WrapperPlayClientUpdateSign wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientUpdateSign(event), playerData::exceptionDisconnect);
+            WrapperPlayClientUpdateSign wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientUpdateSign.class, WrapperPlayClientUpdateSign::new,
+                playerData::exceptionDisconnect);
             if (wrapper == null) return;
             checkUpdateSign(wrapper, event, playerData);
         }
@@ -401,8 +477,9 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
 
     private void handlePluginMessage(PacketReceiveEvent event, PlayerData playerData) {
         if (event.getPacketType() == PacketType.Play.Client.PLUGIN_MESSAGE) {
-            WrapperPlayClientPluginMessage wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientPluginMessage(event), playerData::exceptionDisconnect);
+            WrapperPlayClientPluginMessage wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientPluginMessage.class, WrapperPlayClientPluginMessage::new,
+                playerData::exceptionDisconnect);
             checkPluginMessage(wrapper, event, playerData);
         }
     }
@@ -499,8 +576,9 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
 
     private void handlePlayerBlockPlacement(PacketReceiveEvent event, PlayerData playerData) {
         if (event.getPacketType() == PacketType.Play.Client.PLAYER_BLOCK_PLACEMENT) {
-            WrapperPlayClientPlayerBlockPlacement wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientPlayerBlockPlacement(event), playerData::exceptionDisconnect);
+            WrapperPlayClientPlayerBlockPlacement wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientPlayerBlockPlacement.class, WrapperPlayClientPlayerBlockPlacement::new,
+                playerData::exceptionDisconnect);
 
             if (wrapper == null) return;
 
@@ -557,8 +635,9 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
 
     private void handleSteerVehicle(PacketReceiveEvent event) {
         if (event.getPacketType() == PacketType.Play.Client.STEER_VEHICLE) {
-            WrapperPlayClientSteerVehicle wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientSteerVehicle(event), playerData::exceptionDisconnect);
+            WrapperPlayClientSteerVehicle wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientSteerVehicle.class, WrapperPlayClientSteerVehicle::new,
+                playerData::exceptionDisconnect);
             checkSteerVehicle(wrapper, event);
         }
     }
@@ -584,8 +663,9 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
 
     private void handleInteractEntity(PacketReceiveEvent event) {
         if (event.getPacketType() == PacketType.Play.Client.INTERACT_ENTITY) {
-            WrapperPlayClientInteractEntity wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientInteractEntity(event), playerData::exceptionDisconnect);
+            WrapperPlayClientInteractEntity wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientInteractEntity.class, WrapperPlayClientInteractEntity::new,
+                playerData::exceptionDisconnect);
             checkInteractEntity(wrapper, event);
         }
     }
@@ -607,8 +687,9 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
 
     private void handleNameItem(PacketReceiveEvent event) {
         if (event.getPacketType() == PacketType.Play.Client.NAME_ITEM) {
-            WrapperPlayClientNameItem wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientNameItem(event), playerData::exceptionDisconnect);
+            WrapperPlayClientNameItem wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientNameItem.class, WrapperPlayClientNameItem::new,
+                playerData::exceptionDisconnect);
             checkNameItem(wrapper, event);
         }
     }
@@ -649,8 +730,9 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         if (event.getPacketType() == PacketType.Play.Client.PLAYER_DIGGING
             && isClientVersion19OrNewer && isVersion19OrNewer) {
 
-            WrapperPlayClientPlayerDigging dig = CastUtil.getSupplier(
-                () -> new WrapperPlayClientPlayerDigging(event), playerData::exceptionDisconnect);
+            WrapperPlayClientPlayerDigging dig = CastUtil.getWrapper(
+                event, WrapperPlayClientPlayerDigging.class, WrapperPlayClientPlayerDigging::new,
+                playerData::exceptionDisconnect);
             checkPlayerDigging(dig, event);
         }
     }
@@ -680,8 +762,8 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         if (event.getPacketType() == PacketType.Play.Client.USE_ITEM && isClientVersionAtLeastV1_19
             && isVersionAtLeastV1_19) {
 
-            WrapperPlayClientUseItem use = CastUtil.getSupplier(
-                () -> new WrapperPlayClientUseItem(event), playerData::exceptionDisconnect);
+            WrapperPlayClientUseItem use = CastUtil.getWrapper(
+                event, WrapperPlayClientUseItem.class, WrapperPlayClientUseItem::new, playerData::exceptionDisconnect);
 
             if (use.getSequence() < 0) {
                 dispatch(event, ViolationDocument.builder()
@@ -696,8 +778,9 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
     private void handleClickWindow(PacketReceiveEvent event, PlayerData playerData) {
         if (event.getPacketType() == PacketType.Play.Client.CLICK_WINDOW) {
 
-            WrapperPlayClientClickWindow wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientClickWindow(event), playerData::exceptionDisconnect);
+            WrapperPlayClientClickWindow wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientClickWindow.class, WrapperPlayClientClickWindow::new,
+                playerData::exceptionDisconnect);
 
             if (wrapper == null) return;
 
@@ -730,6 +813,16 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
 
     private void checkItemStack(PacketReceiveEvent event, ItemStack itemStack) {
         if (itemStack == null || itemStack.getNBT() == null) return;
+        analyzedCompound = null;
+        try {
+            checkItemStackNbt(event, itemStack);
+        } finally {
+            analyzedCompound = null;
+        }
+    }
+
+    private void checkItemStackNbt(PacketReceiveEvent event, ItemStack itemStack) {
+        if (checkNbtDepth(event, itemStack)) return;
         checkItemStackTag(event, itemStack);
         checkGenericBookPages(event, itemStack);
         checkGenericNBTLimit(event, itemStack);
@@ -743,6 +836,41 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         checkNbtTags(event, itemStack);
     }
 
+    /**
+     * Retrieves the analysis of the NBT of the given item stack. The NBT is only analyzed again if it was replaced or
+     * modified since the last call. The analysis stops once the NBT exceeds every limit applied to the item stack,
+     * so every check comparing against its own limit still gets the correct result.
+     *
+     * @param itemStack The validated item stack
+     * @return The analysis of the item stack NBT
+     */
+    private NBTAnalysis analyzeNbt(ItemStack itemStack) {
+        NBTCompound compound = itemStack.getNBT();
+        if (compound != analyzedCompound) {
+            analyzedCompound = compound;
+            long maxLength = configEngine().snapshot().isGenericNbtLimit()
+                ? genericNbtLimit()
+                : MAX_FIREWORK_STAR_LENGTH;
+            long maxEncodedLength = isContainerItem(itemStack) ? MAX_BYTE_SIZE : MAX_ENCODED_TAG_LENGTH;
+            nbtAnalysis.analyze(compound, maxLength, maxEncodedLength);
+        }
+        return nbtAnalysis;
+    }
+
+    private boolean checkNbtDepth(PacketReceiveEvent event, ItemStack itemStack) {
+        NBTAnalysis analysis = analyzeNbt(itemStack);
+        if (analysis.isTooDeep()) {
+            dispatch(event, ViolationDocument.builder()
+                .mitigationStrategy(MitigationStrategy.KICK)
+                .description("send item-stack with too deep nbt tag")
+                .debugs(Arrays.asList(new Debug<>("Depth", analysis.getDepth()),
+                                      new Debug<>("Max", NBTAnalysis.MAX_DEPTH)))
+                .build());
+            return true;
+        }
+        return false;
+    }
+
     private void checkGenericBookPages(PacketReceiveEvent event, ItemStack itemStack) {
 
         if (itemStack == null || itemStack.getNBT() == null) return;
@@ -783,18 +911,19 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
 
         if (itemStack == null || itemStack.getNBT() == null) return;
 
-        String mapped = FormatUtils.mapToString(itemStack.getNBT().getTags());
+        NBTAnalysis analysis = analyzeNbt(itemStack);
+        int translateCount = analysis.occurrences(TRANSLATE);
+        boolean snooperDescription = analysis.occurrences(SNOOPER_DESCRIPTION) > 0;
 
-        if (mapped.contains("translate") || mapped.contains("options.snooper.desc")
-            || FormatUtils.countOccurrences(mapped, "translate") > 20) {
+        if (translateCount > 0 || snooperDescription || translateCount > 20) {
 
             dispatch(event, ViolationDocument.builder()
                 .mitigationStrategy(MitigationStrategy.MITIGATE)
                 .description("send raw translate request")
                 .debugs(Arrays.asList(
-                    new Debug<>("Contains", mapped.contains("translate")),
-                    new Debug<>("Snooper", mapped.contains("options.snooper.desc")),
-                    new Debug<>("Count", FormatUtils.countOccurrences(mapped, "translate")),
+                    new Debug<>("Contains", translateCount > 0),
+                    new Debug<>("Snooper", snooperDescription),
+                    new Debug<>("Count", translateCount),
                     new Debug<>("Max Count", 20)
                 )).build());
             itemStack.setNBT(new NBTCompound());
@@ -828,15 +957,15 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
     }
 
     public void checkGenericNBTLimit(PacketReceiveEvent event, ItemStack itemStack) {
-        if (!configEngine().config().getBoolean("generic-nbt-limit", true)) {
+        if (!configEngine().snapshot().isGenericNbtLimit()) {
             return;
         }
 
         if (itemStack == null || itemStack.getNBT() == null) return;
 
-        int length = FormatUtils.mapToString(itemStack.getNBT().getTags()).length();
+        long length = analyzeNbt(itemStack).getLength();
 
-        int limit = playerData.getClientVersion().isNewerThanOrEquals(ClientVersion.V_1_16) ? 30000 : 25000;
+        int limit = genericNbtLimit();
 
         if (length > limit) {
 
@@ -848,6 +977,10 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
     }
 
+    private int genericNbtLimit() {
+        return playerData.getClientVersion().isNewerThanOrEquals(ClientVersion.V_1_16) ? 30000 : 25000;
+    }
+
     private void handleAttributeViolation(ProtocolPacketEvent event, boolean vanillaMapping,
                                           AttributeMapper attributeMapper, NBTCompound tag) {
 
@@ -883,7 +1016,7 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
     }
 
     private boolean useVanillaAttributeMapping() {
-        return configEngine().config().getBoolean("use-vanilla-attribute-mapping", true);
+        return configEngine().snapshot().isUseVanillaAttributeMapping();
     }
 
     private boolean isAmountInvalid(boolean vanillaMapping, AttributeMapper attributeMapper, double amount) {
@@ -1041,14 +1174,13 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         if (itemStack == null || itemStack.getNBT() == null) return;
 
         if (isShulkerBox(itemStack)) {
-            String string = FormatUtils.mapToString(itemStack.getNBT().getTags());
-            int length = string.getBytes(StandardCharsets.UTF_8).length;
-            if (length > 10000) {
+            long length = analyzeNbt(itemStack).getEncodedLength();
+            if (length > MAX_ENCODED_TAG_LENGTH) {
 
                 dispatch(event, ViolationDocument.builder()
                     .description("send to big shulker box")
                     .mitigationStrategy(MitigationStrategy.KICK)
-                    .debugs(Arrays.asList(new Debug<>("Size", length), new Debug<>("Max", 10000)))
+                    .debugs(Arrays.asList(new Debug<>("Size", length), new Debug<>("Max", MAX_ENCODED_TAG_LENGTH)))
                     .build());
             }
         }
@@ -1065,9 +1197,7 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
 
     private void checkForInvalidContainer(PacketReceiveEvent event, ItemStack itemStack) {
         if (isContainerItem(itemStack)) {
-            //noinspection DataFlowIssue
-            String string = FormatUtils.mapToString(itemStack.getNBT().getTags());
-            checkForInvalidSizeAndPresence(event, string);
+            checkForInvalidSizeAndPresence(event, analyzeNbt(itemStack));
         }
     }
 
@@ -1076,18 +1206,18 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
                || itemStack.getType() == ItemTypes.HOPPER_MINECART || itemStack.getType() == ItemTypes.CHEST_MINECART;
     }
 
-    private void checkForInvalidSizeAndPresence(PacketReceiveEvent event, String string) {
-        if (string.getBytes(StandardCharsets.UTF_8).length > MAX_BYTE_SIZE) {
+    private void checkForInvalidSizeAndPresence(PacketReceiveEvent event, NBTAnalysis analysis) {
+        if (analysis.getEncodedLength() > MAX_BYTE_SIZE) {
             dispatch(event, ViolationDocument.builder()
                 .description("send to big container")
                 .mitigationStrategy(MitigationStrategy.KICK)
                 .debugs(Arrays.asList(
-                    new Debug<>("Size", string.getBytes(StandardCharsets.UTF_8).length),
+                    new Debug<>("Size", analysis.getEncodedLength()),
                     new Debug<>("Max", MAX_BYTE_SIZE)
                 ))
                 .build());
         }
-        if (string.contains(WURSTCLIENT_URL)) {
+        if (analysis.occurrences(WURSTCLIENT_URL) > 0) {
             dispatch(event, ViolationDocument.builder()
                 .description("send invalid container")
                 .mitigationStrategy(MitigationStrategy.BAN)
@@ -1430,26 +1560,29 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
     @Override
     public void handle(PacketSendEvent event, PlayerData playerData) {
 
-        if (!configEngine().config().getBoolean("prevent-protocol-packet", true)) {
+        if (!configEngine().snapshot().isPreventProtocolPacket()) {
             return;
         }
 
         if (event.getPacketType() == PacketType.Play.Server.SET_EXPERIENCE) {
 
-            WrapperPlayServerSetExperience wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayServerSetExperience(event), playerData::exceptionDisconnect);
+            WrapperPlayServerSetExperience wrapper = CastUtil.getWrapper(
+                event, WrapperPlayServerSetExperience.class, WrapperPlayServerSetExperience::new,
+                playerData::exceptionDisconnect);
             checkSetExperience(wrapper, event);
 
         } else if (event.getPacketType() == PacketType.Play.Server.WINDOW_ITEMS) {
 
-            WrapperPlayServerWindowItems wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayServerWindowItems(event), playerData::exceptionDisconnect);
+            WrapperPlayServerWindowItems wrapper = CastUtil.getWrapper(
+                event, WrapperPlayServerWindowItems.class, WrapperPlayServerWindowItems::new,
+                playerData::exceptionDisconnect);
 
             checkWindowItems(wrapper, event);
 
         } else if (event.getPacketType() == PacketType.Play.Server.OPEN_WINDOW) {
-            WrapperPlayServerOpenWindow window = CastUtil.getSupplier(
-                () -> new WrapperPlayServerOpenWindow(event), playerData::exceptionDisconnect);
+            WrapperPlayServerOpenWindow window = CastUtil.getWrapper(
+                event, WrapperPlayServerOpenWindow.class, WrapperPlayServerOpenWindow::new,
+                playerData::exceptionDisconnect);
 
             checkOpenWindow(window);
         }
@@ -1460,11 +1593,7 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         boolean isLevelNegative = wrapper.getLevel() < 0;
         boolean totalExperienceNegative = wrapper.getTotalExperience() < 0;
 
-        YamlConfiguration configEngine = Sierra.getPlugin().getSierraConfigEngine().config();
-        boolean skipNegativeExperienceCheck = configEngine.getBoolean(
-            "skip-negative-experience-check",
-            false
-        );
+        boolean skipNegativeExperienceCheck = configEngine().snapshot().isSkipNegativeExperienceCheck();
         boolean skipNegativeCheck = wrapper.getExperienceBar() < 0 && !skipNegativeExperienceCheck;
 
         if (isLevelNegative || skipNegativeCheck || totalExperienceNegative) {
@@ -1515,7 +1644,7 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
 
         ItemType itemStackType = itemStack.getType();
         NBTCompound compound = itemStack.getNBT();
-        String formattedTags = FormatUtils.mapToString(compound.getTags());
+        NBTAnalysis analysis = analyzeNbt(itemStack);
 
         if (itemStackType == ItemTypes.WRITTEN_BOOK || itemStackType == ItemTypes.WRITABLE_BOOK) {
 
@@ -1546,7 +1675,7 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
                         .build());
                 }
             }
-            if (formattedTags.contains(":[{extra:[{")) {
+            if (analysis.occurrences(EXTRA_ARRAY) > 0) {
                 dispatch(event, ViolationDocument.builder()
                     .mitigationStrategy(MitigationStrategy.MITIGATE)
                     .description("send tag with invalid extra")
@@ -1559,22 +1688,22 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
 
         if (itemStackType == ItemTypes.FIREWORK_ROCKET) {
-            if (formattedTags.length() > 300) {
+            if (analysis.getLength() > 300) {
                 dispatch(event, ViolationDocument.builder()
                     .mitigationStrategy(MitigationStrategy.MITIGATE)
                     .description("send firework-tag with invalid length")
-                    .debugs(Collections.singletonList(new Debug<>("Length", formattedTags.length())))
+                    .debugs(Collections.singletonList(new Debug<>("Length", analysis.getLength())))
                     .build());
             }
         }
 
         if (itemStackType == ItemTypes.FIREWORK_STAR) {
-            if (formattedTags.length() > 800) {
+            if (analysis.getLength() > MAX_FIREWORK_STAR_LENGTH) {
                 dispatch(event, ViolationDocument.builder()
                     .mitigationStrategy(MitigationStrategy.MITIGATE)
                     .description("send firework-tag with invalid length")
                     .debugs(Arrays.asList(
-                        new Debug<>("Length", formattedTags.length()),
+                        new Debug<>("Length", analysis.getLength()),
                         new Debug<>("Tag", "Star")
                     ))
                     .build());
@@ -1582,8 +1711,8 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
 
         if (itemStackType != ItemTypes.CHEST && itemStackType != ItemTypes.HOPPER && !isShulkerBox(itemStack)) {
-            int encodedLength = formattedTags.getBytes(StandardCharsets.UTF_8).length;
-            if (encodedLength > 10000) {
+            long encodedLength = analysis.getEncodedLength();
+            if (encodedLength > MAX_ENCODED_TAG_LENGTH) {
                 dispatch(event, ViolationDocument.builder()
                     .mitigationStrategy(MitigationStrategy.MITIGATE)
                     .description("send tag with invalid encoded-length")
@@ -1618,10 +1747,11 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
                         ))
                         .build());
                     compound.removeTag(s);
+                    analyzedCompound = null;
                 }
                 for (int i = 0; i < list.size(); ++i) {
-                    final String content = String.valueOf(list.getTag(i));
-                    if (content == null || content.equalsIgnoreCase("null")) {
+                    final NBT content = list.getTag(i);
+                    if (content == null) {
                         dispatch(event, ViolationDocument.builder()
                             .mitigationStrategy(MitigationStrategy.MITIGATE)
                             .description("send tag with invalid list content")
@@ -1632,7 +1762,8 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
                             ))
                             .build());
                     }
-                    if (content.length() > 90) {
+                    final long contentLength = NBTAnalysis.lengthOf(content, 90);
+                    if (contentLength > 90) {
                         dispatch(event, ViolationDocument.builder()
                             .mitigationStrategy(MitigationStrategy.MITIGATE)
                             .description("send tag with invalid list content")
@@ -1640,7 +1771,7 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
                                 new Debug<>("Size", size),
                                 new Debug<>("Tag", s),
                                 new Debug<>("Index", i),
-                                new Debug<>("Content", content.length())
+                                new Debug<>("Content", contentLength)
                             )).build());
                     }
                 }
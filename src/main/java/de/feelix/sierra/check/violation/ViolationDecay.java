@@ -0,0 +1,86 @@
+package de.feelix.sierra.check.violation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Locale;
+
+/**
+ * The ViolationDecay class describes how the violations of a check decay once the check stopped detecting.
+ * <p>
+ * The violations stay untouched for the grace period after the last detection. Afterwards they either decrease
+ * linearly by {@code rate} violations per second, or exponentially with a half-life of {@code rate} seconds.
+ * The decay is a pure function of the elapsed time, so violations are computed when they are read instead of being
+ * decremented by a task.
+ */
+@Getter
+@AllArgsConstructor
+public class ViolationDecay {
+
+    /**
+     * The decay used if nothing else is configured: 20 violations per second after 4 seconds.
+     */
+    public static final ViolationDecay DEFAULT = new ViolationDecay(Curve.LINEAR, 4000, 20);
+
+    private final Curve  curve;
+    private final long   graceMillis;
+    private final double rate;
+
+    /**
+     * The shape of the decay.
+     */
+    public enum Curve {
+        LINEAR,
+        EXPONENTIAL
+    }
+
+    /**
+     * Applies the decay to the given violations.
+     *
+     * @param violations   The violations at {@code decayMillis} milliseconds ago
+     * @param decayMillis  The milliseconds the violations decayed for, after the grace period
+     * @return The decayed violations, never below 0
+     */
+    public double apply(double violations, long decayMillis) {
+        if (violations <= 0) return 0;
+        if (decayMillis <= 0) return violations;
+
+        double seconds = decayMillis / 1000D;
+
+        if (curve == Curve.EXPONENTIAL) {
+            return rate <= 0 ? violations : violations * Math.pow(0.5, seconds / rate);
+        }
+        return Math.max(0, violations - rate * seconds);
+    }
+
+    /**
+     * Parses a decay in the format "CURVE:graceMillis:rate", for example "LINEAR:4000:20".
+     *
+     * @param value The configured decay
+     * @return The parsed decay
+     * @throws IllegalArgumentException if the value is malformed, the grace period or the rate is negative, or the
+     *                                  half-life of an exponential decay is not positive
+     */
+    public static ViolationDecay parse(String value) {
+        String[] parts = value.split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Expected CURVE:graceMillis:rate");
+        }
+
+        Curve curve = Curve.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+        long graceMillis = Long.parseLong(parts[1].trim());
+        double rate = Double.parseDouble(parts[2].trim());
+
+        if (graceMillis < 0) {
+            throw new IllegalArgumentException("Grace period must not be negative: " + graceMillis);
+        }
+        // Also rejects NaN, which would never decay either
+        if (!(rate >= 0) || Double.isInfinite(rate)) {
+            throw new IllegalArgumentException("Rate must not be negative: " + rate);
+        }
+        if (curve == Curve.EXPONENTIAL && rate == 0) {
+            throw new IllegalArgumentException("Half-life of an exponential decay must be positive");
+        }
+        return new ViolationDecay(curve, graceMillis, rate);
+    }
+}
@@ -44,7 +44,7 @@ public class SierraCommand implements CommandExecutor, TabExecutor {
 
         Player player = (Player) sender;
         User user = PacketEvents.getAPI().getPlayerManager().getUser(player);
-        PlayerData playerData = Sierra.getPlugin().getSierraDataManager().getPlayerData(user).get();
+        PlayerData playerData = Sierra.getPlugin().getSierraDataManager().getPlayerData(user);
 
         if (playerData == null || !sender.hasPermission("sierra.command")) {
             sendVersionOutputToUser(user);
@@ -141,7 +141,7 @@ public class HistoryCommand implements ISierraCommand {
      * @return A Pagination object containing the sorted history documents.
      */
     private Pagination<History> setupPagination() {
-        List<History> list = new ArrayList<>(Sierra.getPlugin().getSierraDataManager().getHistories());
+        List<History> list = new ArrayList<>(Sierra.getPlugin().getSierraDataManager().getHistoryStore().recent());
         list.sort(Comparator.comparing(History::timestamp).reversed());
         return new Pagination<>(list, 5);
     }
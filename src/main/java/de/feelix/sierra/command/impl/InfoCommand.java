@@ -1,11 +1,15 @@
 package de.feelix.sierra.command.impl;
 
 import com.github.retrooper.packetevents.protocol.player.User;
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.storage.logger.LogSegmentStore;
 import de.feelix.sierra.utilities.message.ConfigValue;
 import de.feelix.sierraapi.check.impl.SierraCheck;
 import de.feelix.sierraapi.commands.*;
 import de.feelix.sierraapi.user.impl.SierraUser;
+import io.github.retrooper.packetevents.util.folia.FoliaScheduler;
 
+import java.io.File;
 import java.util.Collections;
 import java.util.List;
 
@@ -53,6 +57,31 @@ public class InfoCommand implements ISierraCommand {
         ).replacePrefix().replace("{playerName}", playerName).colorize().message());
         sendUserData(user, sierraUser);
         sendCheckInformation(user, sierraUser);
+        sendLogSegments(user, sierraUser.username());
+    }
+
+    /**
+     * Sends the number of log segments containing lines of the player to a user. The segment indexes are read
+     * asynchronously, so the command never waits for the disk.
+     *
+     * @param user       the User object representing the user receiving the message
+     * @param playerName the name of the player to look up the log segments of
+     */
+    private void sendLogSegments(User user, String playerName) {
+        FoliaScheduler.getAsyncScheduler().runNow(Sierra.getPlugin(), o -> {
+            List<File> segments = LogSegmentStore.segmentsOf(playerName);
+            if (segments.isEmpty()) return;
+
+            user.sendMessage(new ConfigValue(
+                "commands.info.logs",
+                "{prefix} &7Log segments: &b{segments} &7(latest: &b{latest}&7)",
+                true
+            ).replacePrefix()
+                                 .replace("{segments}", String.valueOf(segments.size()))
+                                 .replace("{latest}", segments.get(segments.size() - 1).getName())
+                                 .colorize()
+                                 .message());
+        });
     }
 
     /**
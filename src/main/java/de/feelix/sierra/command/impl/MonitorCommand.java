@@ -5,21 +5,26 @@ import de.feelix.sierra.Sierra;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.utilities.message.ConfigValue;
 import de.feelix.sierraapi.commands.*;
+import de.feelix.sierraapi.timing.CheckTiming;
 import de.feelix.sierraapi.timing.Timing;
 import de.feelix.sierraapi.timing.TimingHandler;
 import de.feelix.sierraapi.user.impl.SierraUser;
 
-import java.lang.ref.WeakReference;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
- * MonitorCommand is a class that represents a command that prints monitoring information related to the player.
+ * MonitorCommand is a class that represents a command that prints monitoring information related to the player,
+ * or server-wide monitoring information including the most expensive checks with {@code /sierra monitor global}.
  * It implements the ISierraCommand interface, which defines the necessary methods that need to be implemented by a
  * command class.
  */
 public class MonitorCommand implements ISierraCommand {
 
+    private static final int TOP_CHECK_TIMINGS = 10;
+
     /**
      * The process method is responsible for processing the command and printing the performance monitor information
      * related to the player.
@@ -35,15 +40,21 @@ public class MonitorCommand implements ISierraCommand {
                         ISierraLabel sierraLabel,
                         ISierraArguments sierraArguments) {
 
+        List<String> arguments = sierraArguments.getArguments();
+        if (arguments.size() > 1 && arguments.get(1).equalsIgnoreCase("global")) {
+            printGlobalMonitor(user);
+            return;
+        }
+
         user.sendMessage(new ConfigValue(
             "commands.monitor.header",
             "{prefix} &fPerformance monitor &7(Your data)",
             true
         ).replacePrefix().colorize().message());
 
-        WeakReference<PlayerData> playerData = Sierra.getPlugin().getSierraDataManager().getPlayerData(user);
+        PlayerData playerData = Sierra.getPlugin().getSierraDataManager().getPlayerData(user);
 
-        if (playerData == null || playerData.get() == null) {
+        if (playerData == null) {
             user.sendMessage(
                 new ConfigValue(
                     "commands.monitor.nothing-found",
@@ -52,55 +63,114 @@ public class MonitorCommand implements ISierraCommand {
                 ).replacePrefix().colorize().message());
             return;
         }
-        printMonitor(user, sierraUser);
+        printMonitor(user, sierraUser.timingHandler());
     }
 
     /**
-     * Prints performance monitor information related to the player.
+     * Prints the server-wide performance monitor information, followed by the most expensive pairs of check and
+     * packet type.
      *
-     * @param user       the User associated with the command execution
-     * @param sierraUser the SierraUser representing the user in the Sierra API
+     * @param user the User associated with the command execution
      */
-    private void printMonitor(User user, SierraUser sierraUser) {
+    private void printGlobalMonitor(User user) {
+        user.sendMessage(new ConfigValue(
+            "commands.monitor.global-header",
+            "{prefix} &fPerformance monitor &7(Server-wide)",
+            true
+        ).replacePrefix().colorize().message());
+
+        TimingHandler timingHandler = Sierra.getPlugin().server().timingHandler();
+        printMonitor(user, timingHandler);
 
-        TimingHandler timingProcessor = sierraUser.timingHandler();
+        user.sendMessage(
+            new ConfigValue(
+                "commands.monitor.checks-header",
+                "{prefix} &b&lMost expensive checks:",
+                true
+            ).replacePrefix().colorize().message());
+
+        List<CheckTiming> checkTimings = timingHandler.getCheckTimings()
+            .stream()
+            .filter(checkTiming -> checkTiming.timing().count() > 0)
+            .sorted(Comparator.comparingDouble((CheckTiming checkTiming) -> checkTiming.timing().totalDelay())
+                        .reversed())
+            .limit(TOP_CHECK_TIMINGS)
+            .collect(Collectors.toList());
+
+        if (checkTimings.isEmpty()) {
+            user.sendMessage(
+                new ConfigValue(
+                    "commands.monitor.nothing-found",
+                    "{prefix} &cNo data found!",
+                    true
+                ).replacePrefix().colorize().message());
+            return;
+        }
+
+        for (CheckTiming checkTiming : checkTimings) {
+            sendTiming(checkTiming.timing(), checkTiming.checkType().getFriendlyName() + " &8/ &7"
+                                             + checkTiming.packetType()
+                                             + (checkTiming.outgoing() ? " &8(out)" : " &8(in)"), user);
+        }
+    }
+
+    /**
+     * Prints performance monitor information of the given timing handler.
+     *
+     * @param user          the User associated with the command execution
+     * @param timingHandler the TimingHandler to print
+     */
+    private void printMonitor(User user, TimingHandler timingHandler) {
         user.sendMessage(
             new ConfigValue(
                 "commands.monitor.packets-header",
                 "{prefix} &b&lPackets:",
                 true
             ).replacePrefix().colorize().message());
-        sendTiming(timingProcessor.getPacketReceiveTask(), "Ingoing Packets", user);
-        sendTiming(timingProcessor.getPacketSendTask(), "Outgoing Packets", user);
+        sendTiming(timingHandler.getPacketReceiveTask(), "Ingoing Packets", user);
+        sendTiming(timingHandler.getPacketSendTask(), "Outgoing Packets", user);
         user.sendMessage(
             new ConfigValue(
                 "commands.monitor.environment-header",
                 "{prefix} &b&lEnvironment:",
                 true
             ).replacePrefix().colorize().message());
-        sendTiming(timingProcessor.getMovementTask(), "Movement Task", user);
-        sendTiming(timingProcessor.getFrequencyTask(), "Frequency Task", user);
+        sendTiming(timingHandler.getMovementTask(), "Movement Task", user);
+        sendTiming(timingHandler.getFrequencyTask(), "Frequency Task", user);
+        sendTiming(timingHandler.getTransactionTask(),
+                   "Transaction Tasks (" + timingHandler.getPendingTransactionTasks() + " pending, peak "
+                   + timingHandler.getPeakTransactionTasks() + ")", user);
     }
 
     /**
-     * Sends a timing message to the user.
+     * Sends a timing message to the user, containing the percentiles, maximum and count of the delays measured within
+     * the recent time window.
      *
-     * @param packetReceiveTiming the Timing object representing the timing of the received packet
-     * @param title               the title of the timing message
-     * @param user                the User object to send the message to
+     * @param timing the Timing object to print
+     * @param title  the title of the timing message
+     * @param user   the User object to send the message to
      */
-    private void sendTiming(Timing packetReceiveTiming, String title, User user) {
+    private void sendTiming(Timing timing, String title, User user) {
         user.sendMessage(
             new ConfigValue(
                 "commands.monitor.entry",
-                "{prefix}  &8- &f{title} &7({delay}ms)",
+                "{prefix}  &8- &f{title} &7(p50 {p50}ms, p95 {p95}ms, p99 {p99}ms, max {max}ms, {count}x)",
                 true
             ).replacePrefix()
                 .replace("{title}", title)
-                .replace("{delay}", String.format("%.5f", packetReceiveTiming.delay()))
+                .replace("{delay}", formatDelay(timing.delay()))
+                .replace("{p50}", formatDelay(timing.percentile(50)))
+                .replace("{p95}", formatDelay(timing.percentile(95)))
+                .replace("{p99}", formatDelay(timing.percentile(99)))
+                .replace("{max}", formatDelay(timing.maxDelay()))
+                .replace("{count}", String.valueOf(timing.count()))
                 .colorize().message());
     }
 
+    private String formatDelay(double delay) {
+        return String.format("%.5f", Math.max(0, delay));
+    }
+
     /**
      * Generates a list of strings based on the given ID and arguments.
      *
@@ -112,6 +182,8 @@ public class MonitorCommand implements ISierraCommand {
     public List<String> fromId(int id, String[] args) {
         if (id == 1) {
             return Collections.singletonList("monitor");
+        } else if (id == 2 && args[0].equalsIgnoreCase("monitor")) {
+            return Collections.singletonList("global");
         }
         return Collections.emptyList();
     }
@@ -7,6 +7,7 @@ import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
 import com.github.retrooper.packetevents.protocol.item.ItemStack;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import com.github.retrooper.packetevents.wrapper.play.client.*;
@@ -15,9 +16,15 @@ import de.feelix.sierra.manager.storage.SierraDataManager;
 import de.feelix.sierra.manager.storage.logger.LogTag;
 import de.feelix.sierra.utilities.CastUtil;
 import de.feelix.sierra.utilities.FormatUtils;
+import de.feelix.sierra.utilities.nbt.NBTAnalysis;
 
 public class PacketLoggerListener extends PacketListenerAbstract {
 
+    /**
+     * Longest NBT String representation that is written to the log. Larger trees are only logged as a summary.
+     */
+    private static final int MAX_LOGGED_NBT_LENGTH = 16384;
+
     public PacketLoggerListener() {
         super(PacketListenerPriority.MONITOR);
     }
@@ -33,20 +40,22 @@ public class PacketLoggerListener extends PacketListenerAbstract {
 
         if (event.getPacketType() == PacketType.Play.Client.PLAYER_BLOCK_PLACEMENT) {
 
-            WrapperPlayClientPlayerBlockPlacement wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientPlayerBlockPlacement(event), playerData::exceptionDisconnect);
+            WrapperPlayClientPlayerBlockPlacement wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientPlayerBlockPlacement.class, WrapperPlayClientPlayerBlockPlacement::new,
+                playerData::exceptionDisconnect);
 
             wrapper.getItemStack().ifPresent(itemStack -> {
                 if (itemStack.getNBT() != null) {
                     playerData.getSierraLogger()
-                        .log(LogTag.BLOCK_PLACE, FormatUtils.mapToString(itemStack.getNBT().getTags()));
+                        .log(LogTag.BLOCK_PLACE, formatNbt(itemStack.getNBT()));
                 }
             });
 
         } else if (event.getPacketType() == PacketType.Play.Client.PLUGIN_MESSAGE) {
 
-            WrapperPlayClientPluginMessage wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientPluginMessage(event), playerData::exceptionDisconnect);
+            WrapperPlayClientPluginMessage wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientPluginMessage.class, WrapperPlayClientPluginMessage::new,
+                playerData::exceptionDisconnect);
 
             String payload = wrapper.getChannelName();
 
@@ -64,7 +73,7 @@ public class PacketLoggerListener extends PacketListenerAbstract {
                         if (itemStack.getNBT() != null) {
                             playerData.getSierraLogger()
                                 .log(
-                                    LogTag.PAYLOAD, FormatUtils.mapToString(itemStack.getNBT().getTags())
+                                    LogTag.PAYLOAD, formatNbt(itemStack.getNBT())
                                 );
                         }
                     } catch (Exception exception) {
@@ -77,29 +86,47 @@ public class PacketLoggerListener extends PacketListenerAbstract {
 
         } else if (event.getPacketType() == PacketType.Play.Client.CREATIVE_INVENTORY_ACTION) {
 
-            WrapperPlayClientCreativeInventoryAction wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientCreativeInventoryAction(event), playerData::exceptionDisconnect);
+            WrapperPlayClientCreativeInventoryAction wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientCreativeInventoryAction.class, WrapperPlayClientCreativeInventoryAction::new,
+                playerData::exceptionDisconnect);
 
             ItemStack itemStack = wrapper.getItemStack();
             if (itemStack != null && itemStack.getNBT() != null) {
                 playerData.getSierraLogger()
-                    .log(LogTag.CREATIVE, FormatUtils.mapToString(itemStack.getNBT().getTags()));
+                    .log(LogTag.CREATIVE, formatNbt(itemStack.getNBT()));
             }
 
         } else if (event.getPacketType() == PacketType.Play.Client.CLICK_WINDOW) {
 
-            WrapperPlayClientClickWindow wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientClickWindow(event), playerData::exceptionDisconnect);
+            WrapperPlayClientClickWindow wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientClickWindow.class, WrapperPlayClientClickWindow::new,
+                playerData::exceptionDisconnect);
 
             ItemStack itemStack = wrapper.getCarriedItemStack();
             if (itemStack != null && itemStack.getNBT() != null) {
                 playerData.getSierraLogger()
-                    .log(LogTag.WINDOW_CLICK, FormatUtils.mapToString(itemStack.getNBT().getTags()));
+                    .log(LogTag.WINDOW_CLICK, formatNbt(itemStack.getNBT()));
             }
         }
     }
 
+    /**
+     * Formats the given NBT for the log, without building the String representation of trees exceeding
+     * {@link #MAX_LOGGED_NBT_LENGTH}.
+     *
+     * @param compound The NBT to format
+     * @return The String representation of the NBT, or a summary if it is too large
+     */
+    private String formatNbt(NBTCompound compound) {
+        NBTAnalysis analysis = new NBTAnalysis().analyze(compound, MAX_LOGGED_NBT_LENGTH, MAX_LOGGED_NBT_LENGTH);
+        if (analysis.isExceeded()) {
+            return "<NBT exceeds " + MAX_LOGGED_NBT_LENGTH + " characters, depth: " + analysis.getDepth()
+                   + ", largest list: " + analysis.getLargestList() + ">";
+        }
+        return FormatUtils.mapToString(compound.getTags());
+    }
+
     private PlayerData getPlayerData(ProtocolPacketEvent event) {
-        return SierraDataManager.getInstance().getPlayerData(event.getUser()).get();
+        return SierraDataManager.getInstance().getPlayerData(event.getUser());
     }
 }
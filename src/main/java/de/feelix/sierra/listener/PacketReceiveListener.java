@@ -12,8 +12,8 @@ import de.feelix.sierra.manager.storage.SierraDataManager;
 import de.feelix.sierra.manager.storage.logger.LogTag;
 import de.feelix.sierra.utilities.CastUtil;
 import de.feelix.sierra.utilities.FormatUtils;
+import de.feelix.sierra.utilities.nbt.NBTPreScanner;
 import de.feelix.sierraapi.violation.MitigationStrategy;
-import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.util.Arrays;
 import java.util.logging.Logger;
@@ -40,6 +40,7 @@ public class PacketReceiveListener extends PacketListenerAbstract {
         }
 
         if (isWeirdPacket(event, playerData)) return;
+        if (hasInvalidNbt(event, playerData)) return;
 
         if (bypassPermission(playerData)) {
             event.setCancelled(false);
@@ -47,34 +48,34 @@ public class PacketReceiveListener extends PacketListenerAbstract {
         }
 
         playerData.getTimingProcessor().getPacketReceiveTask().prepare();
+        try {
+            playerData.getTransactionProcessor().handleTransactionClient(event);
 
-        playerData.getTransactionProcessor().handleTransactionClient(event);
+            handleLocale(event, playerData);
 
-        handleLocale(event, playerData);
+            if (handleExemptOrBlockedPlayer(playerData, event)) return;
 
-        if (handleExemptOrBlockedPlayer(playerData, event)) return;
-
-        playerData.getBrandProcessor().process(event);
-        playerData.getPingProcessor().handlePacketReceive(event);
-        playerData.getCheckManager().processAvailableChecksReceive(event);
-
-        playerData.getTimingProcessor().getPacketReceiveTask().end();
+            playerData.getBrandProcessor().process(event);
+            playerData.getPingProcessor().handlePacketReceive(event);
+            playerData.getCheckManager().processAvailableChecksReceive(event);
+        } finally {
+            playerData.getTimingProcessor().getPacketReceiveTask().end();
+        }
     }
 
     private void handleLocale(PacketReceiveEvent event, PlayerData playerData) {
         if (event.getPacketType() == PacketType.Play.Client.CLIENT_SETTINGS) {
-            WrapperPlayClientSettings wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientSettings(event), playerData::exceptionDisconnect);
+            WrapperPlayClientSettings wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientSettings.class, WrapperPlayClientSettings::new,
+                playerData::exceptionDisconnect);
             playerData.setLocale(wrapper.getLocale());
         }
     }
 
     private boolean isWeirdPacket(ProtocolPacketEvent event, PlayerData playerData) {
 
-        YamlConfiguration sierraConfig = Sierra.getPlugin().getSierraConfigEngine().config();
-
         int readableBytes = ByteBufHelper.readableBytes(event.getByteBuf());
-        int maxPacketSize = sierraConfig.getInt("generic-packet-size-limit", 6000);
+        int maxPacketSize = Sierra.getPlugin().getSierraConfigEngine().snapshot().getGenericPacketSizeLimit();
         int capacity = ByteBufHelper.capacity(event.getByteBuf());
 
         boolean shouldCheck = maxPacketSize != -1;
@@ -104,6 +105,40 @@ public class PacketReceiveListener extends PacketListenerAbstract {
         return false;
     }
 
+    /**
+     * Scans the raw NBT of item-carrying packets before any wrapper decodes them, so oversized or deeply nested trees
+     * never reach PacketEvents.
+     */
+    private boolean hasInvalidNbt(PacketReceiveEvent event, PlayerData playerData) {
+        NBTPreScanner.Result result = NBTPreScanner.scan(
+            event.getByteBuf(), event.getPacketType(), event.getServerVersion());
+
+        if (result == NBTPreScanner.Result.OK) {
+            return false;
+        }
+
+        playerData.getSierraLogger().log(LogTag.PRE, FormatUtils.chainDebugs(Arrays.asList(
+            new Debug<>("Packet", event.getPacketType().getName()),
+            new Debug<>("Result", result.getDescription()),
+            new Debug<>("Bytes", ByteBufHelper.readableBytes(event.getByteBuf()))
+        )));
+
+        LOGGER.info(String.format("Disconnecting %s, %s in %s", playerData.getUser().getName(),
+                                  result.getDescription(), event.getPacketType().getName()
+        ));
+        Sierra.getPlugin().getSierraDataManager().createMitigateHistory(
+            playerData.username(),
+            playerData.version(),
+            MitigationStrategy.KICK,
+            playerData.ping(),
+            String.format("Sent %s in %s", result.getDescription(), event.getPacketType().getName())
+        );
+
+        playerData.cancelEvent(event);
+        playerData.punish(MitigationStrategy.KICK);
+        return true;
+    }
+
     private void logAndDisconnect(PlayerData playerData, int readableBytes, int capacity, int maxPacketSize) {
         LOGGER.info(String.format("Disconnecting %s, packet too big. Bytes: %d, capacity: %d, max: %d",
                                   playerData.getUser().getName(), readableBytes, capacity, maxPacketSize
@@ -122,12 +157,12 @@ public class PacketReceiveListener extends PacketListenerAbstract {
     }
 
     private boolean bypassPermission(PlayerData playerData) {
-        return Sierra.getPlugin().getSierraConfigEngine().config().getBoolean("enable-bypass-permission", false)
+        return Sierra.getPlugin().getSierraConfigEngine().snapshot().isEnableBypassPermission()
                && playerData.isBypassPermission();
     }
 
     private PlayerData getPlayerData(ProtocolPacketEvent event) {
-        return SierraDataManager.getInstance().getPlayerData(event.getUser()).get();
+        return SierraDataManager.getInstance().getPlayerData(event.getUser());
     }
 
     private boolean handleExemptOrBlockedPlayer(PlayerData playerData, ProtocolPacketEvent event) {
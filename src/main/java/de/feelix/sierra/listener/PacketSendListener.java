@@ -5,9 +5,12 @@ import com.github.retrooper.packetevents.event.PacketListenerPriority;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
 import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerJoinGame;
 import de.feelix.sierra.Sierra;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.manager.storage.SierraDataManager;
+import de.feelix.sierra.utilities.CastUtil;
 
 public class PacketSendListener extends PacketListenerAbstract {
 
@@ -23,7 +26,14 @@ public class PacketSendListener extends PacketListenerAbstract {
 
         PlayerData playerData = getPlayerData(event);
 
-        if (playerData == null || handleExemptOrBlockedPlayer(playerData, event)) return;
+        if (playerData == null) return;
+
+        // Indexed before the exempt and bypass checks, so every player can be queried by its entity id
+        if (event.getPacketType() == PacketType.Play.Server.JOIN_GAME) {
+            indexEntityId(playerData, event);
+        }
+
+        if (handleExemptOrBlockedPlayer(playerData, event)) return;
 
         if (bypassPermission(playerData)) {
             event.setCancelled(false);
@@ -31,19 +41,30 @@ public class PacketSendListener extends PacketListenerAbstract {
         }
 
         playerData.getTimingProcessor().getPacketSendTask().prepare();
+        try {
+            playerData.getTeleportProcessor().handle(event);
+            playerData.getTransactionProcessor().handleTransactionSend(event);
+            playerData.getGameModeProcessor().process(event);
+            playerData.getPingProcessor().handlePacketSend(event);
 
-        playerData.getTeleportProcessor().handle(event);
-        playerData.getTransactionProcessor().handleTransactionSend(event);
-        playerData.getGameModeProcessor().process(event);
-        playerData.getPingProcessor().handlePacketSend(event);
-
-        playerData.getCheckManager().processAvailableChecksSend(event);
+            playerData.getCheckManager().processAvailableChecksSend(event);
+        } finally {
+            playerData.getTimingProcessor().getPacketSendTask().end();
+        }
+    }
 
-        playerData.getTimingProcessor().getPacketSendTask().end();
+    private void indexEntityId(PlayerData playerData, PacketSendEvent event) {
+        WrapperPlayServerJoinGame joinGame = CastUtil.getWrapper(
+            event, WrapperPlayServerJoinGame.class, WrapperPlayServerJoinGame::new,
+            playerData::exceptionDisconnect
+        );
+        if (joinGame != null) {
+            SierraDataManager.getInstance().indexEntityId(playerData, joinGame.getEntityId());
+        }
     }
 
     private boolean bypassPermission(PlayerData playerData) {
-        return Sierra.getPlugin().getSierraConfigEngine().config().getBoolean("enable-bypass-permission", false)
+        return Sierra.getPlugin().getSierraConfigEngine().snapshot().isEnableBypassPermission()
                && playerData.isBypassPermission();
     }
 
@@ -60,6 +81,6 @@ public class PacketSendListener extends PacketListenerAbstract {
     }
 
     private PlayerData getPlayerData(ProtocolPacketEvent event) {
-        return SierraDataManager.getInstance().getPlayerData(event.getUser()).get();
+        return SierraDataManager.getInstance().getPlayerData(event.getUser());
     }
 }
@@ -0,0 +1,242 @@
+package de.feelix.sierra.manager.config;
+
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.check.violation.ViolationDecay;
+import de.feelix.sierraapi.check.CheckType;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The ConfigSnapshot class is an immutable, typed view of the sierra.yml file.
+ * It is compiled once when the configuration is loaded and replaced as a whole on reload, so the checks can read
+ * plain fields on the packet path instead of querying the YAML tree for every packet.
+ */
+@Getter
+public class ConfigSnapshot {
+
+    private static final PacketType.Play.Client[] CLIENT_TYPES = PacketType.Play.Client.values();
+
+    private final boolean enableBypassPermission;
+    private final boolean logViolationToConsole;
+    private final int     alertCooldownMillis;
+    private final boolean blockConnectionsAfterBan;
+    private final int     genericPacketSizeLimit;
+
+    private final int bandwidthBytesPerSecond;
+    private final int bandwidthBytesBurst;
+    private final int bandwidthPacketsPerSecond;
+    private final int bandwidthPacketsBurst;
+
+    private final boolean preventPacketFrequency;
+    private final int     genericPacketFrequencyDefault;
+
+    private final boolean preventProtocolPacket;
+    private final boolean genericNbtLimit;
+    private final boolean useVanillaAttributeMapping;
+    private final boolean skipNegativeExperienceCheck;
+
+    private final boolean preventBookCrasher;
+    private final boolean disableBooksCompletely;
+    private final boolean skipBookReadableCheck;
+
+    private final boolean preventCreativeCrasher;
+    private final boolean allowNegativeEnchantments;
+    private final int     maxEnchantmentLevel;
+
+    private final boolean preventProtocolMove;
+    private final boolean preventTimerCheats;
+    private final boolean preventPostPackets;
+
+    private final boolean  blockDisallowedCommands;
+    private final String[] disallowedCommands;
+
+    /**
+     * Frequency limit of every incoming play packet, indexed by the ordinal of its packet type.
+     */
+    @Getter(AccessLevel.NONE)
+    private final int[] frequencyLimits = new int[CLIENT_TYPES.length];
+
+    /**
+     * Whether an incoming play packet is excluded from the frequency limit, indexed by the ordinal of its packet type.
+     */
+    @Getter(AccessLevel.NONE)
+    private final boolean[] excludedFromLimit = new boolean[CLIENT_TYPES.length];
+
+    private final ViolationDecay violationDecayDefault;
+
+    /**
+     * Violation decay of every check, indexed by the ordinal of its check type.
+     */
+    @Getter(AccessLevel.NONE)
+    private final ViolationDecay[] violationDecays = new ViolationDecay[CheckType.values().length];
+
+    /**
+     * Compiles the given configuration into a new snapshot.
+     *
+     * @param config The loaded sierra.yml configuration
+     */
+    public ConfigSnapshot(YamlConfiguration config) {
+        this.enableBypassPermission = config.getBoolean("enable-bypass-permission", false);
+        this.logViolationToConsole = config.getBoolean("log-violation-to-console", true);
+        this.alertCooldownMillis = config.getInt("alert-cooldown-millis", 250);
+        this.blockConnectionsAfterBan = config.getBoolean("block-connections-after-ban", true);
+        this.genericPacketSizeLimit = config.getInt("generic-packet-size-limit", 6000);
+
+        this.bandwidthBytesPerSecond = config.getInt("bandwidth-bytes-per-second", 64000);
+        this.bandwidthBytesBurst = config.getInt("bandwidth-bytes-burst", 64000);
+        this.bandwidthPacketsPerSecond = config.getInt("bandwidth-packets-per-second", 1000);
+        this.bandwidthPacketsBurst = config.getInt("bandwidth-packets-burst", 2000);
+
+        this.preventPacketFrequency = config.getBoolean("prevent-packet-frequency", true);
+        this.genericPacketFrequencyDefault = config.getInt("generic-packet-frequency-default", 50);
+
+        this.preventProtocolPacket = config.getBoolean("prevent-protocol-packet", true);
+        this.genericNbtLimit = config.getBoolean("generic-nbt-limit", true);
+        this.useVanillaAttributeMapping = config.getBoolean("use-vanilla-attribute-mapping", true);
+        this.skipNegativeExperienceCheck = config.getBoolean("skip-negative-experience-check", false);
+
+        this.preventBookCrasher = config.getBoolean("prevent-book-crasher", true);
+        this.disableBooksCompletely = config.getBoolean("disable-books-completely", false);
+        this.skipBookReadableCheck = config.getBoolean("skip-book-readable-check", false);
+
+        this.preventCreativeCrasher = config.getBoolean("prevent-creative-crasher", true);
+        this.allowNegativeEnchantments = config.getBoolean("allow-negative-enchantments", false);
+        this.maxEnchantmentLevel = config.getInt("max-enchantment-level", 5);
+
+        this.preventProtocolMove = config.getBoolean("prevent-protocol-move", true);
+        this.preventTimerCheats = config.getBoolean("prevent-timer-cheats", true);
+        this.preventPostPackets = config.getBoolean("prevent-post-packets", true);
+
+        this.blockDisallowedCommands = config.getBoolean("block-disallowed-commands", true);
+        this.disallowedCommands = config.getStringList("disallowed-commands")
+            .stream()
+            .map(command -> command.toLowerCase(Locale.ROOT))
+            .toArray(String[]::new);
+
+        compileFrequencyLimits(config.getStringList("generic-packet-frequency-limit"));
+        compileExcludedPackets(config.getStringList("excluded-packets-from-limit"));
+        this.violationDecayDefault = parseViolationDecay(
+            config.getString("violation-decay-default", "LINEAR:4000:20"));
+        compileViolationDecays(config.getStringList("violation-decay"));
+    }
+
+    private ViolationDecay parseViolationDecay(String entry) {
+        try {
+            return ViolationDecay.parse(entry);
+        } catch (IllegalArgumentException exception) {
+            Sierra.getPlugin().getLogger().warning("Invalid violation decay: " + entry);
+            return ViolationDecay.DEFAULT;
+        }
+    }
+
+    /**
+     * Parses the "CHECK_TYPE:CURVE:graceMillis:rate" entries of the violation decay list. Check types without an entry
+     * use the default decay, malformed entries are skipped with a warning.
+     *
+     * @param entries The configured decays per check type
+     */
+    private void compileViolationDecays(List<String> entries) {
+        Arrays.fill(violationDecays, violationDecayDefault);
+
+        for (String entry : entries) {
+            int separator = entry.indexOf(':');
+            try {
+                CheckType checkType = CheckType.valueOf(entry.substring(0, Math.max(0, separator)).trim());
+                violationDecays[checkType.ordinal()] = ViolationDecay.parse(entry.substring(separator + 1));
+            } catch (IllegalArgumentException exception) {
+                Sierra.getPlugin().getLogger().warning("Invalid violation decay: " + entry);
+            }
+        }
+    }
+
+    /**
+     * Parses the "NAME:limit" entries of the frequency limit list. The first entry of a packet type wins, unknown
+     * packet types are ignored and malformed entries are skipped with a warning.
+     *
+     * @param entries The configured frequency limit entries
+     */
+    private void compileFrequencyLimits(List<String> entries) {
+        Arrays.fill(frequencyLimits, genericPacketFrequencyDefault);
+        boolean[] configured = new boolean[CLIENT_TYPES.length];
+
+        for (String entry : entries) {
+            String[] parts = entry.split(":");
+            if (parts.length < 2) {
+                Sierra.getPlugin().getLogger().warning("Invalid packet frequency limit: " + entry);
+                continue;
+            }
+
+            PacketType.Play.Client packetType = clientType(parts[0]);
+            if (packetType == null) continue;
+
+            try {
+                int limit = Integer.parseInt(parts[1]);
+                if (!configured[packetType.ordinal()]) {
+                    frequencyLimits[packetType.ordinal()] = limit;
+                    configured[packetType.ordinal()] = true;
+                }
+            } catch (NumberFormatException exception) {
+                Sierra.getPlugin().getLogger().warning("Invalid packet frequency limit: " + entry);
+            }
+        }
+    }
+
+    private void compileExcludedPackets(List<String> entries) {
+        for (String entry : entries) {
+            PacketType.Play.Client packetType = clientType(entry);
+            if (packetType != null) {
+                excludedFromLimit[packetType.ordinal()] = true;
+            }
+        }
+    }
+
+    private PacketType.Play.Client clientType(String name) {
+        for (PacketType.Play.Client packetType : CLIENT_TYPES) {
+            if (packetType.getName().equals(name)) {
+                return packetType;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the violation decay of the given check type.
+     *
+     * @param checkType The check type, or null for checks without a type
+     * @return The configured decay, or the default decay
+     */
+    public ViolationDecay violationDecay(CheckType checkType) {
+        return checkType == null ? violationDecayDefault : violationDecays[checkType.ordinal()];
+    }
+
+    /**
+     * Retrieves the frequency limit of the given packet type.
+     *
+     * @param packetType The type of the received packet
+     * @return The configured limit, or the default limit if the packet type has none
+     */
+    public int frequencyLimit(PacketTypeCommon packetType) {
+        if (packetType instanceof PacketType.Play.Client) {
+            return frequencyLimits[((PacketType.Play.Client) packetType).ordinal()];
+        }
+        return genericPacketFrequencyDefault;
+    }
+
+    /**
+     * Checks if the given packet type is excluded from the frequency limit.
+     *
+     * @param packetType The type of the received packet
+     * @return true if the packet type is excluded, false otherwise
+     */
+    public boolean isExcludedFromLimit(PacketTypeCommon packetType) {
+        return packetType instanceof PacketType.Play.Client
+               && excludedFromLimit[((PacketType.Play.Client) packetType).ordinal()];
+    }
+}
@@ -2,6 +2,7 @@ package de.feelix.sierra.manager.config;
 
 import de.feelix.sierra.Sierra;
 import de.feelix.sierra.utilities.FileUtil;
+import de.feelix.sierra.utilities.message.MessageTemplates;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
@@ -28,16 +29,28 @@ public class SierraConfigEngine {
      */
     private static final Map<String, YamlConfiguration> cache = new ConcurrentHashMap<>();
 
+    /**
+     * The snapshot variable holds the typed view of the sierra.yml file that is read on the packet path.
+     * It is replaced as a whole whenever the cache is invalidated.
+     */
+    private volatile ConfigSnapshot snapshot;
+
+    /**
+     * The templates variable holds the compiled messages, which are rendered without querying the YAML tree.
+     * It is replaced as a whole whenever the cache is invalidated.
+     */
+    private volatile MessageTemplates templates;
+
     /**
      * The SierraConfigEngine function is a constructor for the SierraConfigEngine class.
      * It loads the main configuration file and messages file into memory, so that they can be accessed by other
      * functions.
      */
     public SierraConfigEngine() {
-        //noinspection unused
         YamlConfiguration mainConfig = config();
-        //noinspection unused
         YamlConfiguration messages   = messages();
+        this.snapshot = new ConfigSnapshot(mainConfig);
+        this.templates = new MessageTemplates(messages, mainConfig);
     }
 
     /**
@@ -51,6 +64,25 @@ public class SierraConfigEngine {
         return getFileFromCache("sierra.yml");
     }
 
+    /**
+     * The snapshot method retrieves the typed snapshot of the sierra.yml file.
+     * Unlike {@link #config()}, it does not perform any lookups, so it is meant to be used on the packet path.
+     *
+     * @return The current ConfigSnapshot
+     */
+    public ConfigSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * The templates method retrieves the compiled templates of the messages.
+     *
+     * @return The current MessageTemplates
+     */
+    public MessageTemplates templates() {
+        return templates;
+    }
+
     /**
      * The messages method retrieves the "messages.yml" file from the cache.
      * If the file is not already in the cache, it will be loaded and added to the cache.
@@ -124,9 +156,12 @@ public class SierraConfigEngine {
     }
 
     /**
-     * The invalidateCache function clears the cache of all entries.
+     * The invalidateCache function clears the cache of all entries and swaps in a freshly compiled snapshot and
+     * freshly compiled message templates.
      */
     public void invalidateCache() {
         cache.clear();
+        snapshot = new ConfigSnapshot(config());
+        templates = new MessageTemplates(messages(), config());
     }
 }
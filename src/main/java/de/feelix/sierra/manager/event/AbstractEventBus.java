@@ -6,17 +6,34 @@ import de.feelix.sierraapi.events.priority.ListenerPriority;
 import de.feelix.sierraapi.events.EventBus;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 /**
  * Represents an event bus that allows events to be published and subscribed to.
+ * <p>
+ * Subscribers are stored in copy-on-write arrays that are kept sorted by priority, so publishing neither sorts nor
+ * locks. An event is delivered to the subscribers of its class and of all its superclasses and interfaces; this
+ * hierarchy is resolved once per event class and cached until the next subscription.
  */
 public class AbstractEventBus implements EventBus {
 
+    private static final EventSubscriber<?>[] NO_SUBSCRIBERS = new EventSubscriber<?>[0];
+
+    private static final Comparator<EventSubscriber<?>> PRIORITY_ORDER =
+        Comparator.comparingInt(EventSubscriber::getPriority);
+
+    /**
+     * Represents a map that holds the subscribers of each subscribed event type, sorted by priority.
+     * The arrays are never modified, a subscription replaces the array of its event type.
+     */
+    private final Map<Class<?>, EventSubscriber<?>[]> subscribers = new ConcurrentHashMap<>();
+
     /**
-     * Represents a map that holds a list of event subscribers for each event type.
+     * The subscribers of each published event class, including the subscribers of its supertypes.
+     * The map is replaced as a whole on every subscription.
      */
-    private final Map<Class<?>, List<EventSubscriber<?>>> subscribers = new HashMap<>();
+    private volatile Map<Class<?>, EventSubscriber<?>[]> resolved = new ConcurrentHashMap<>();
 
     /**
      * Subscribes a consumer to handle events of a specific type.
@@ -37,28 +54,45 @@ public class AbstractEventBus implements EventBus {
      * @param event     the consumer function to handle the event
      * @param priority  the priority of the listener
      */
-    public <T extends SierraAbstractEvent> void subscribe(Class<T> eventType, Consumer<T> event, ListenerPriority priority) {
-        subscribers.computeIfAbsent(eventType, k -> new ArrayList<>())
-            .add(new EventSubscriber<>(event, priority.getScore()));
+    public synchronized <T extends SierraAbstractEvent> void subscribe(Class<T> eventType, Consumer<T> event,
+                                                                       ListenerPriority priority) {
+        EventSubscriber<?>[] current = subscribers.getOrDefault(eventType, NO_SUBSCRIBERS);
+        EventSubscriber<?>[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = new EventSubscriber<>(event, priority.getScore());
+
+        // Stable, so subscribers of the same priority keep their subscription order
+        Arrays.sort(updated, PRIORITY_ORDER);
+
+        subscribers.put(eventType, updated);
+        resolved = new ConcurrentHashMap<>();
     }
 
     /**
-     * Publishes an event to all the subscribers that are subscribed to the event type.
+     * Checks whether an event of the given type would reach any subscriber, so events can be skipped before they
+     * are even constructed.
+     *
+     * @param eventType the class of the event
+     * @return true if at least one subscriber receives events of the given class
+     */
+    @Override
+    public boolean hasSubscribers(Class<? extends SierraAbstractEvent> eventType) {
+        return subscribersOf(eventType).length > 0;
+    }
+
+    /**
+     * Publishes an event to all the subscribers that are subscribed to the event type or one of its supertypes.
      * If no subscribers are found for the given event type, the method returns without any further action.
      *
      * @param <T>   the type of event to be published, must extend AbstractEvent
      * @param event the event to be published
      */
     public <T extends SierraAbstractEvent> void publish(T event) {
-        List<EventSubscriber<?>> eventSubscribers = subscribers.get(event.getClass());
-
-        if (eventSubscribers == null) return;
-
-        dispatchEventToSubscribers(event, eventSubscribers);
+        dispatch(event, subscribersOf(event.getClass()));
     }
 
     /**
-     * Dispatches an event to all the subscribers that are subscribed to the event type.
+     * Dispatches an event to the given subscribers in the priority order of the bus. The given list is copied, so it
+     * is never reordered.
      *
      * @param <T>              the type of the event, must extend {@link SierraAbstractEvent}
      * @param event            the event to be dispatched
@@ -66,12 +100,55 @@ public class AbstractEventBus implements EventBus {
      */
     public <T extends SierraAbstractEvent> void dispatchEventToSubscribers(T event,
                                                                            List<EventSubscriber<?>> eventSubscribers) {
+        EventSubscriber<?>[] sorted = eventSubscribers.toArray(new EventSubscriber<?>[0]);
+        Arrays.sort(sorted, PRIORITY_ORDER);
+        dispatch(event, sorted);
+    }
 
-        eventSubscribers.sort(Comparator.comparingInt(EventSubscriber::getPriority));
-
+    @SuppressWarnings("unchecked")
+    private <T extends SierraAbstractEvent> void dispatch(T event, EventSubscriber<?>[] eventSubscribers) {
         for (EventSubscriber<?> eventSubscriber : eventSubscribers) {
-
             ((EventSubscriber<T>) eventSubscriber).getConsumer().accept(event);
         }
     }
+
+    private EventSubscriber<?>[] subscribersOf(Class<?> eventClass) {
+        Map<Class<?>, EventSubscriber<?>[]> cache = resolved;
+        EventSubscriber<?>[] result = cache.get(eventClass);
+        return result != null ? result : cache.computeIfAbsent(eventClass, this::resolve);
+    }
+
+    /**
+     * Collects the subscribers of the given class and all its supertypes, the class itself first, and sorts them by
+     * priority.
+     *
+     * @param eventClass the class of the event
+     * @return the sorted subscribers
+     */
+    private EventSubscriber<?>[] resolve(Class<?> eventClass) {
+        List<EventSubscriber<?>> collected = new ArrayList<>();
+        Set<Class<?>> visited = new HashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.add(eventClass);
+
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.poll();
+            if (type == null || !visited.add(type)) continue;
+
+            EventSubscriber<?>[] direct = subscribers.get(type);
+            if (direct != null) {
+                collected.addAll(Arrays.asList(direct));
+            }
+
+            if (type.getSuperclass() != null) {
+                pending.add(type.getSuperclass());
+            }
+            pending.addAll(Arrays.asList(type.getInterfaces()));
+        }
+
+        if (collected.isEmpty()) return NO_SUBSCRIBERS;
+
+        collected.sort(PRIORITY_ORDER);
+        return collected.toArray(NO_SUBSCRIBERS);
+    }
 }
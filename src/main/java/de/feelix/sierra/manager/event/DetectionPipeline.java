@@ -0,0 +1,184 @@
+package de.feelix.sierra.manager.event;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.utilities.BoundedWorker;
+import de.feelix.sierraapi.events.EventBus;
+import de.feelix.sierraapi.events.api.SierraAbstractEvent;
+import de.feelix.sierraapi.events.impl.AsyncUserDetectionBatchEvent;
+import de.feelix.sierraapi.events.impl.AsyncUserDetectionEvent;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * The DetectionPipeline class publishes the asynchronous detection and history events on a single background thread.
+ * <p>
+ * Producers only enqueue events into the bounded queue of the {@link BoundedWorker} instead of scheduling one task per
+ * event. The worker drains the queue in batches and publishes the events in the order they were submitted; the
+ * detections of every batch are additionally published as one {@link AsyncUserDetectionBatchEvent}. If the queue is
+ * full, events are dropped and counted instead of blocking the producer, except for events submitted with
+ * {@link #submitReliably(SierraAbstractEvent, Consumer)}, such as the history events that persist punishments. Events
+ * published more than {@link #LAG_THRESHOLD_MILLIS} after their submission are counted as lagging, and both counts are
+ * reported to the console.
+ */
+public class DetectionPipeline extends BoundedWorker<DetectionPipeline.PipelineEntry> {
+
+    @Getter
+    private static final DetectionPipeline instance = new DetectionPipeline();
+
+    private static final int  MAX_QUEUED_EVENTS     = 10_000;
+    private static final int  MAX_BATCH_SIZE        = 512;
+    private static final long LAG_THRESHOLD_MILLIS  = 1000;
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    @Getter
+    private final AtomicLong laggingEvents = new AtomicLong();
+
+    // Only accessed by the worker thread
+    private final List<AsyncUserDetectionEvent> detections      = new ArrayList<>();
+    private       long                          reportedDropped = 0;
+    private       long                          reportedLagging = 0;
+    private       long                          lastReport      = System.nanoTime();
+
+    private DetectionPipeline() {
+        super("Sierra Detection Pipeline", MAX_QUEUED_EVENTS, MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Enqueues an event. The event is dropped and counted if the queue is full.
+     *
+     * @param event The event to publish
+     */
+    public void submit(SierraAbstractEvent event) {
+        submit(event, null);
+    }
+
+    /**
+     * Enqueues an event together with a callback that runs on the worker thread after the event was published,
+     * for example to act on its cancelled state. The event is dropped and counted if the queue is full.
+     *
+     * @param event       The event to publish
+     * @param onPublished The callback, or null
+     * @param <T>         The type of the event
+     */
+    public <T extends SierraAbstractEvent> void submit(T event, Consumer<T> onPublished) {
+        enqueue(new PipelineEntry(event, onPublished, System.currentTimeMillis()));
+    }
+
+    /**
+     * Enqueues an event together with a callback like {@link #submit(SierraAbstractEvent, Consumer)}, but never drops
+     * it, even if the queue is full. Only for events that must not be lost, such as the history of a punishment.
+     *
+     * @param event       The event to publish
+     * @param onPublished The callback, or null
+     * @param <T>         The type of the event
+     */
+    public <T extends SierraAbstractEvent> void submitReliably(T event, Consumer<T> onPublished) {
+        enqueueUnbounded(new PipelineEntry(event, onPublished, System.currentTimeMillis()));
+    }
+
+    @Override
+    protected void process(PipelineEntry entry) {
+        if (System.currentTimeMillis() - entry.submitted > LAG_THRESHOLD_MILLIS) {
+            laggingEvents.incrementAndGet();
+        }
+        if (entry.event instanceof AsyncUserDetectionEvent) {
+            detections.add((AsyncUserDetectionEvent) entry.event);
+        }
+        publish(Sierra.getPlugin().getEventBus(), entry);
+    }
+
+    /**
+     * Publishes the detections of the batch as one batch event, and reports the dropped and lagging events once per
+     * {@link #REPORT_INTERVAL_NANOS}.
+     */
+    @Override
+    protected void afterBatch(int published) {
+        if (!detections.isEmpty()) {
+            EventBus eventBus = Sierra.getPlugin().getEventBus();
+            if (eventBus.hasSubscribers(AsyncUserDetectionBatchEvent.class)) {
+                publishSafely(eventBus, new AsyncUserDetectionBatchEvent(
+                    Collections.unmodifiableList(new ArrayList<>(detections))));
+            }
+            detections.clear();
+        }
+
+        if (System.nanoTime() - lastReport >= REPORT_INTERVAL_NANOS) {
+            report();
+        }
+    }
+
+    /**
+     * Wakes up for the next report while dropped or lagging events were not reported yet.
+     */
+    @Override
+    protected long idleTimeoutNanos() {
+        if (getDropped().get() == reportedDropped && laggingEvents.get() == reportedLagging) return 0;
+        return Math.max(1, REPORT_INTERVAL_NANOS - (System.nanoTime() - lastReport));
+    }
+
+    @Override
+    protected void onStop() {
+        report();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void publish(EventBus eventBus, PipelineEntry entry) {
+        if (!publishSafely(eventBus, entry.event) || entry.onPublished == null) return;
+
+        try {
+            ((Consumer<SierraAbstractEvent>) entry.onPublished).accept(entry.event);
+        } catch (Exception e) {
+            Sierra.getPlugin().getLogger().warning("Unable to complete event: " + e.getMessage());
+        }
+    }
+
+    private boolean publishSafely(EventBus eventBus, SierraAbstractEvent event) {
+        try {
+            eventBus.publish(event);
+            return true;
+        } catch (Exception e) {
+            Sierra.getPlugin().getLogger().warning(
+                "Subscriber of " + event.getClass().getSimpleName() + " failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Reports the events that were dropped or lagging since the last report.
+     */
+    private void report() {
+        lastReport = System.nanoTime();
+
+        long dropped = getDropped().get();
+        long lagging = laggingEvents.get();
+        if (dropped == reportedDropped && lagging == reportedLagging) return;
+
+        Sierra.getPlugin().getLogger().warning(String.format(
+            "Detection pipeline is behind: %d events dropped, %d events published later than %dms",
+            dropped - reportedDropped, lagging - reportedLagging, LAG_THRESHOLD_MILLIS));
+        reportedDropped = dropped;
+        reportedLagging = lagging;
+    }
+
+    /**
+     * A queued event.
+     */
+    static final class PipelineEntry {
+
+        private final SierraAbstractEvent event;
+        private final Consumer<?>         onPublished;
+        private final long                submitted;
+
+        private PipelineEntry(SierraAbstractEvent event, Consumer<?> onPublished, long submitted) {
+            this.event = event;
+            this.onPublished = onPublished;
+            this.submitted = submitted;
+        }
+    }
+}
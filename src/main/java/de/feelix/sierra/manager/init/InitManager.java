@@ -4,6 +4,10 @@ import java.util.ArrayList;
 import java.util.List;
 import de.feelix.sierra.manager.init.impl.load.InitPacketEvents;
 import de.feelix.sierra.manager.init.impl.start.*;
+import de.feelix.sierra.manager.init.impl.stop.DisableAlertDispatcher;
+import de.feelix.sierra.manager.init.impl.stop.DisableDetectionPipeline;
+import de.feelix.sierra.manager.init.impl.stop.DisableHistoryStore;
+import de.feelix.sierra.manager.init.impl.stop.DisableLogWriter;
 import de.feelix.sierra.manager.init.impl.stop.DisablePacketEvents;
 
 /**
@@ -58,6 +62,10 @@ public class InitManager {
         initializersOnLoad.add(new InitPacketEvents());
 
         // On start
+        initializersOnStart.add(new InitLogWriter());
+        initializersOnStart.add(new InitAlertDispatcher());
+        initializersOnStart.add(new InitDetectionPipeline());
+        initializersOnStart.add(new InitHistoryStore());
         initializersOnStart.add(new InitPacketListeners());
         initializersOnStart.add(new InitBStats());
         initializersOnStart.add(new InitCommand());
@@ -67,6 +75,10 @@ public class InitManager {
 
         // On stop
         initializersOnStop.add(new DisablePacketEvents());
+        initializersOnStop.add(new DisableAlertDispatcher());
+        initializersOnStop.add(new DisableDetectionPipeline());
+        initializersOnStop.add(new DisableHistoryStore());
+        initializersOnStop.add(new DisableLogWriter());
     }
 
     /**
@@ -0,0 +1,22 @@
+package de.feelix.sierra.manager.init.impl.start;
+
+import de.feelix.sierra.manager.init.Initable;
+import de.feelix.sierra.manager.storage.alert.AlertDispatcher;
+
+/**
+ * The InitAlertDispatcher class implements the Initable interface.
+ * It is responsible for starting the background thread that delivers the staff alerts.
+ *
+ * @see Initable
+ * @see AlertDispatcher
+ */
+public class InitAlertDispatcher implements Initable {
+
+    /**
+     * Start the alert dispatcher thread.
+     */
+    @Override
+    public void start() {
+        AlertDispatcher.getInstance().start();
+    }
+}
@@ -0,0 +1,22 @@
+package de.feelix.sierra.manager.init.impl.start;
+
+import de.feelix.sierra.manager.event.DetectionPipeline;
+import de.feelix.sierra.manager.init.Initable;
+
+/**
+ * The InitDetectionPipeline class implements the Initable interface.
+ * It is responsible for starting the background thread that publishes the detection and history events.
+ *
+ * @see Initable
+ * @see DetectionPipeline
+ */
+public class InitDetectionPipeline implements Initable {
+
+    /**
+     * Start the detection pipeline thread.
+     */
+    @Override
+    public void start() {
+        DetectionPipeline.getInstance().start();
+    }
+}
@@ -0,0 +1,25 @@
+package de.feelix.sierra.manager.init.impl.start;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.init.Initable;
+import de.feelix.sierra.manager.storage.history.HistoryStore;
+import io.github.retrooper.packetevents.util.folia.FoliaScheduler;
+
+/**
+ * The InitHistoryStore class implements the Initable interface.
+ * It is responsible for loading the action history from disk off the server thread.
+ *
+ * @see Initable
+ * @see HistoryStore
+ */
+public class InitHistoryStore implements Initable {
+
+    /**
+     * Load the history store asynchronously, so the history command never reads the disk on the server thread.
+     */
+    @Override
+    public void start() {
+        HistoryStore historyStore = Sierra.getPlugin().getSierraDataManager().getHistoryStore();
+        FoliaScheduler.getAsyncScheduler().runNow(Sierra.getPlugin(), o -> historyStore.load());
+    }
+}
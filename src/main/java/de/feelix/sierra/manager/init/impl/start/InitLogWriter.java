@@ -0,0 +1,22 @@
+package de.feelix.sierra.manager.init.impl.start;
+
+import de.feelix.sierra.manager.init.Initable;
+import de.feelix.sierra.manager.storage.logger.LogWriter;
+
+/**
+ * The InitLogWriter class implements the Initable interface.
+ * It is responsible for starting the background thread that writes the player logs.
+ *
+ * @see Initable
+ * @see LogWriter
+ */
+public class InitLogWriter implements Initable {
+
+    /**
+     * Start the log writer thread.
+     */
+    @Override
+    public void start() {
+        LogWriter.getInstance().start();
+    }
+}
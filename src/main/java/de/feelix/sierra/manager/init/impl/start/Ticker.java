@@ -1,16 +1,16 @@
 package de.feelix.sierra.manager.init.impl.start;
 
-import com.github.retrooper.packetevents.protocol.player.GameMode;
 import de.feelix.sierra.Sierra;
 import de.feelix.sierra.manager.init.Initable;
 import de.feelix.sierra.manager.storage.SierraDataManager;
 import de.feelix.sierra.manager.storage.PlayerData;
-import de.feelix.sierraapi.check.impl.SierraCheck;
 import io.github.retrooper.packetevents.util.folia.FoliaScheduler;
 import lombok.Getter;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
+import java.util.UUID;
+
 @Getter
 public class Ticker implements Initable {
 
@@ -23,7 +23,6 @@ public class Ticker implements Initable {
     public void start() {
         instance = this;
         scheduleTickTask();
-        scheduleByteResetTask();
         schedulePlayerDataPollTask();
     }
 
@@ -31,39 +30,29 @@ public class Ticker implements Initable {
         FoliaScheduler.getAsyncScheduler().runAtFixedRate(Sierra.getPlugin(), o -> currentTick++, 1, 1);
     }
 
-    private void scheduleByteResetTask() {
-        FoliaScheduler.getAsyncScheduler().runAtFixedRate(Sierra.getPlugin(), o -> {
-            for (PlayerData value : SierraDataManager.getInstance().getPlayerData().values()) {
-                value.setBytesSent(0);
-            }
-        }, 0, 20);
-    }
-
+    /**
+     * Attaches the Bukkit player of every new user and sends the due transactions. The Bukkit data itself is polled by
+     * a task per player on the thread owning it, see {@link PlayerData#attach(Player)}.
+     */
     private void schedulePlayerDataPollTask() {
         FoliaScheduler.getAsyncScheduler().runAtFixedRate(Sierra.getPlugin(), o -> {
             for (PlayerData value : SierraDataManager.getInstance().getPlayerData().values()) {
-                if (isUserValid(value)) {
-                    Player player = Bukkit.getPlayer(value.getUser().getName());
-                    if (player != null) {
-                        value.setGameMode(GameMode.valueOf(player.getGameMode().name()));
-                        value.pollData(player);
-                    }
+                if (value.getBukkitPlayer() == null) {
+                    attachPlayer(value);
+                } else if (value.getTransactionProcessor().shouldSendTransaction()) {
+                    value.sendTransaction();
                 }
-                handleCheckViolations(value);
             }
         }, 0, 1);
     }
 
-    private boolean isUserValid(PlayerData playerData) {
-        return playerData.getUser() != null && playerData.getUser().getName() != null;
-    }
+    private void attachPlayer(PlayerData playerData) {
+        UUID uuid = playerData.getUser().getUUID();
+        if (uuid == null) return;
 
-    private void handleCheckViolations(PlayerData playerData) {
-        for (SierraCheck sierraCheck : playerData.getCheckManager().availableChecks()) {
-            boolean timeSinceLastDetection = System.currentTimeMillis() - sierraCheck.lastDetection() > 4000;
-            if (sierraCheck.violations() > 0 && timeSinceLastDetection) {
-                sierraCheck.setViolations(sierraCheck.violations() - 1);
-            }
+        Player player = Bukkit.getPlayer(uuid);
+        if (player != null) {
+            playerData.attach(player);
         }
     }
 }
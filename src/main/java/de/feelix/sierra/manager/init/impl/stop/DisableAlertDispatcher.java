@@ -0,0 +1,22 @@
+package de.feelix.sierra.manager.init.impl.stop;
+
+import de.feelix.sierra.manager.init.Initable;
+import de.feelix.sierra.manager.storage.alert.AlertDispatcher;
+
+/**
+ * The DisableAlertDispatcher class implements the Initable interface.
+ * It is responsible for delivering the remaining staff alerts and stopping the alert dispatcher thread.
+ *
+ * @see Initable
+ * @see AlertDispatcher
+ */
+public class DisableAlertDispatcher implements Initable {
+
+    /**
+     * Stop the alert dispatcher thread after all queued alerts have been delivered.
+     */
+    @Override
+    public void start() {
+        AlertDispatcher.getInstance().stop();
+    }
+}
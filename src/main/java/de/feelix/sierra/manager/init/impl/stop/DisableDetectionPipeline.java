@@ -0,0 +1,22 @@
+package de.feelix.sierra.manager.init.impl.stop;
+
+import de.feelix.sierra.manager.event.DetectionPipeline;
+import de.feelix.sierra.manager.init.Initable;
+
+/**
+ * The DisableDetectionPipeline class implements the Initable interface.
+ * It is responsible for publishing the remaining events and stopping the detection pipeline thread.
+ *
+ * @see Initable
+ * @see DetectionPipeline
+ */
+public class DisableDetectionPipeline implements Initable {
+
+    /**
+     * Stop the detection pipeline thread after all queued events have been published.
+     */
+    @Override
+    public void start() {
+        DetectionPipeline.getInstance().stop();
+    }
+}
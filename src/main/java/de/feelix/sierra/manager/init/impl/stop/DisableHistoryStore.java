@@ -0,0 +1,25 @@
+package de.feelix.sierra.manager.init.impl.stop;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.init.Initable;
+import de.feelix.sierra.manager.storage.history.HistoryStore;
+
+/**
+ * The DisableHistoryStore class implements the Initable interface.
+ * It is responsible for flushing and closing the active history segment.
+ *
+ * @see Initable
+ * @see HistoryStore
+ */
+public class DisableHistoryStore implements Initable {
+
+    /**
+     * Close the history store after the last history entries have been published.
+     */
+    @Override
+    public void start() {
+        if (Sierra.getPlugin().getSierraDataManager() != null) {
+            Sierra.getPlugin().getSierraDataManager().getHistoryStore().close();
+        }
+    }
+}
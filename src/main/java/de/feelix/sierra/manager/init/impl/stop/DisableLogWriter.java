@@ -0,0 +1,22 @@
+package de.feelix.sierra.manager.init.impl.stop;
+
+import de.feelix.sierra.manager.init.Initable;
+import de.feelix.sierra.manager.storage.logger.LogWriter;
+
+/**
+ * The DisableLogWriter class implements the Initable interface.
+ * It is responsible for writing the remaining player logs and stopping the log writer thread.
+ *
+ * @see Initable
+ * @see LogWriter
+ */
+public class DisableLogWriter implements Initable {
+
+    /**
+     * Stop the log writer thread after all queued log lines have been written.
+     */
+    @Override
+    public void start() {
+        LogWriter.getInstance().stop();
+    }
+}
@@ -0,0 +1,41 @@
+package de.feelix.sierra.manager.packet;
+
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The PacketSubscription annotation declares which packet types a processor is interested in. The CheckManager uses
+ * it to build its dispatch table once, so a packet is only handed to the processors that actually read it.
+ * <p>
+ * An empty array (or a missing annotation) subscribes the processor to every packet of that direction.
+ * <p>
+ * Example usage:
+ * ```
+ * @PacketSubscription(ingoing = {PacketType.Play.Client.CHAT_MESSAGE})
+ * public class ChatCheck implements IngoingProcessor {
+ *     // Class implementation
+ * }
+ * ```
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface PacketSubscription {
+
+    /**
+     * Retrieves the incoming packet types handled by the IngoingProcessor.
+     *
+     * @return The incoming packet types, or an empty array for all incoming packets
+     */
+    PacketType.Play.Client[] ingoing() default {};
+
+    /**
+     * Retrieves the outgoing packet types handled by the OutgoingProcessor.
+     *
+     * @return The outgoing packet types, or an empty array for all outgoing packets
+     */
+    PacketType.Play.Server[] outgoing() default {};
+}
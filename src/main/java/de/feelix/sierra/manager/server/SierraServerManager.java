@@ -1,6 +1,8 @@
 package de.feelix.sierra.manager.server;
 
+import de.feelix.sierra.manager.storage.timings.GlobalTimingHandler;
 import de.feelix.sierraapi.server.SierraServer;
+import de.feelix.sierraapi.timing.TimingHandler;
 import io.github.retrooper.packetevents.util.SpigotReflectionUtil;
 
 import java.util.UUID;
@@ -45,4 +47,14 @@ public class SierraServerManager implements SierraServer {
     public double tps() {
         return SpigotReflectionUtil.getTPS();
     }
+
+    /**
+     * Returns the server-wide TimingHandler.
+     *
+     * @return the GlobalTimingHandler instance
+     */
+    @Override
+    public TimingHandler timingHandler() {
+        return GlobalTimingHandler.getInstance();
+    }
 }
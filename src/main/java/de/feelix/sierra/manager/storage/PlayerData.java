@@ -9,21 +9,29 @@ import com.github.retrooper.packetevents.protocol.world.Location;
 import de.feelix.sierra.Sierra;
 import de.feelix.sierra.check.CheckManager;
 import de.feelix.sierra.manager.storage.alert.AbstractAlertSetting;
+import de.feelix.sierra.manager.storage.alert.AlertDispatcher;
+import de.feelix.sierra.manager.storage.limit.TokenBucket;
 import de.feelix.sierra.manager.storage.logger.SierraLogger;
 import de.feelix.sierra.manager.storage.processor.*;
 import de.feelix.sierra.utilities.FormatUtils;
 import de.feelix.sierra.utilities.message.ConfigValue;
 import de.feelix.sierraapi.timing.TimingHandler;
+import de.feelix.sierraapi.user.limit.RateLimit;
 import de.feelix.sierraapi.user.settings.AlertSettings;
 import io.github.retrooper.packetevents.util.folia.FoliaScheduler;
 import io.github.retrooper.packetevents.util.viaversion.ViaVersionUtil;
+import io.github.retrooper.packetevents.util.folia.TaskWrapper;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import de.feelix.sierraapi.check.CheckRepository;
 import de.feelix.sierraapi.user.impl.SierraUser;
 import de.feelix.sierraapi.violation.MitigationStrategy;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -32,7 +40,29 @@ import java.util.UUID;
 @Data
 public class PlayerData implements SierraUser {
 
-    private Object bukkitPlayer;
+    /**
+     * The number of ticks between two polls of the Bukkit player.
+     */
+    public static final int POLL_PERIOD = 10;
+
+    private static final GameMode[] GAME_MODES = Arrays.stream(org.bukkit.GameMode.values())
+        .map(bukkitGameMode -> GameMode.valueOf(bukkitGameMode.name()))
+        .toArray(GameMode[]::new);
+
+    private volatile Object bukkitPlayer;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile TaskWrapper pollTask;
+    /**
+     * Set once the player disconnected, so an attach racing with the disconnect does not keep polling.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile boolean detached;
+    /**
+     * The entity id this player is indexed with in the {@link SierraDataManager}, or -1.
+     */
+    private volatile int indexedEntityId = -1;
     private User user;
     private GameMode gameMode;
     private Location lastLocation;
@@ -49,10 +79,11 @@ public class PlayerData implements SierraUser {
     private boolean nameChecked = false;
     private boolean bypassPermission = false;
 
-    private double bytesSent = 0;
+    private final TokenBucket byteLimit = new TokenBucket();
+    private final TokenBucket packetLimit = new TokenBucket();
 
-    private final AlertSettings alertSettings = new AbstractAlertSetting();
-    private final AlertSettings mitigationSettings = new AbstractAlertSetting();
+    private final AlertSettings alertSettings;
+    private final AlertSettings mitigationSettings;
 
     private SierraLogger sierraLogger;
     private final CheckManager checkManager = new CheckManager(this);
@@ -60,23 +91,57 @@ public class PlayerData implements SierraUser {
     private final GameModeProcessor gameModeProcessor = new GameModeProcessor(this);
     private final PingProcessor pingProcessor = new PingProcessor(this);
     private final TeleportProcessor teleportProcessor = new TeleportProcessor(this);
+    private final TimingProcessor timingProcessor = new TimingProcessor(this);
     private final TransactionProcessor transactionProcessor = new TransactionProcessor(this);
-    private final TimingHandler timingProcessor = new TimingProcessor(this);
 
     public PlayerData(User user) {
         this.user = user;
         this.clientVersion = user.getClientVersion();
         this.sierraLogger = new SierraLogger("INVALID");
+        this.alertSettings = new AbstractAlertSetting(AlertDispatcher.getInstance().getAlertSubscribers(), user);
+        this.mitigationSettings = new AbstractAlertSetting(
+            AlertDispatcher.getInstance().getMitigationSubscribers(), user);
     }
 
-    public void pollData(Player bukkitPlayer) {
+    /**
+     * Attaches the Bukkit player and starts polling its data every {@link #POLL_PERIOD} ticks on the thread owning the
+     * player, which is its region thread on Folia. The first poll is offset by the entity id, so the polls of all
+     * players are spread evenly over the period. Does nothing if the player already disconnected, and cancels the
+     * task again if the player disconnects while it is scheduled.
+     *
+     * @param bukkitPlayer the Bukkit player of this user
+     */
+    public void attach(Player bukkitPlayer) {
+        if (detached) return;
+
         this.bukkitPlayer = bukkitPlayer;
-        bypassPermission = bukkitPlayer.hasPermission("sierra.bypass");
-        if (this.sierraLogger.getPlayerName().equalsIgnoreCase("INVALID")) {
-            this.sierraLogger.close();
-            sierraLogger = new SierraLogger(bukkitPlayer.getName());
+        this.sierraLogger = new SierraLogger(bukkitPlayer.getName());
+
+        long delay = 1 + Math.floorMod(bukkitPlayer.getEntityId(), POLL_PERIOD);
+        TaskWrapper task = FoliaScheduler.getEntityScheduler().runAtFixedRate(
+            bukkitPlayer, Sierra.getPlugin(), o -> pollData(bukkitPlayer), null, delay, POLL_PERIOD);
+        this.pollTask = task;
+
+        if (detached && task != null) {
+            task.cancel();
         }
-        sendTransaction();
+    }
+
+    /**
+     * Stops polling the data of the Bukkit player, also for an attach that is still running.
+     */
+    public void detach() {
+        detached = true;
+
+        TaskWrapper task = pollTask;
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
+    public void pollData(Player bukkitPlayer) {
+        bypassPermission = bukkitPlayer.hasPermission("sierra.bypass");
+        gameMode = GAME_MODES[bukkitPlayer.getGameMode().ordinal()];
     }
 
     public ClientVersion getClientVersion() {
@@ -239,6 +304,16 @@ public class PlayerData implements SierraUser {
         return this.getTimingProcessor();
     }
 
+    @Override
+    public RateLimit byteRateLimit() {
+        return this.byteLimit;
+    }
+
+    @Override
+    public RateLimit packetRateLimit() {
+        return this.packetLimit;
+    }
+
     public long getPlayerClockAtLeast() {
         return this.playerClock;
     }
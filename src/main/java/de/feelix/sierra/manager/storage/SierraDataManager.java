@@ -4,9 +4,13 @@ import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketListenerCommon;
 import com.github.retrooper.packetevents.event.UserConnectEvent;
 import com.github.retrooper.packetevents.event.UserDisconnectEvent;
+import com.github.retrooper.packetevents.event.UserLoginEvent;
 import com.github.retrooper.packetevents.protocol.player.User;
 import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.event.DetectionPipeline;
+import de.feelix.sierra.manager.storage.alert.AlertDispatcher;
 import de.feelix.sierra.manager.storage.history.HistoryDocument;
+import de.feelix.sierra.manager.storage.history.HistoryStore;
 import de.feelix.sierra.utilities.update.UpdateChecker;
 import de.feelix.sierraapi.check.CheckType;
 import de.feelix.sierraapi.events.impl.AsyncHistoryCreateEvent;
@@ -15,6 +19,9 @@ import de.feelix.sierraapi.history.HistoryType;
 import de.feelix.sierraapi.violation.MitigationStrategy;
 import io.github.retrooper.packetevents.adventure.serializer.legacy.LegacyComponentSerializer;
 import io.github.retrooper.packetevents.util.folia.FoliaScheduler;
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+import lombok.AccessLevel;
 import lombok.Getter;
 import de.feelix.sierraapi.user.UserRepository;
 import de.feelix.sierraapi.user.impl.SierraUser;
@@ -24,7 +31,6 @@ import net.kyori.adventure.text.event.HoverEvent;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
-import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -49,10 +55,29 @@ public class SierraDataManager implements UserRepository {
     public static boolean skipAnvilCheck = false;
     public static boolean skipDeltaPositionCheck = false;
 
+    /**
+     * The channel attribute holding the PlayerData of a connection, so the packet listeners resolve it with a single
+     * attribute read instead of a map lookup. The name is unique per loaded class, so a reload never reads the
+     * PlayerData of a previous class loader from a channel that is still open.
+     */
+    private static final AttributeKey<PlayerData> PLAYER_DATA_KEY = AttributeKey.valueOf(
+        "sierra_player_data_" + System.identityHashCode(SierraDataManager.class));
+
     @Getter
     private static SierraDataManager instance;
     private final Map<User, PlayerData> playerData = new ConcurrentHashMap<>();
-    private final List<History> histories = new ArrayList<>();
+
+    /**
+     * Secondary indexes over {@link #playerData}, so the {@link UserRepository} queries do not scan all players.
+     * The names are stored lower-cased.
+     */
+    @Getter(AccessLevel.NONE)
+    private final Map<UUID, PlayerData>    uuidIndex     = new ConcurrentHashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final Map<Integer, PlayerData> entityIdIndex = new ConcurrentHashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final Map<String, PlayerData>  nameIndex     = new ConcurrentHashMap<>();
+    private final HistoryStore historyStore = new HistoryStore();
 
     public SierraDataManager() {
         instance = this;
@@ -69,6 +94,14 @@ public class SierraDataManager implements UserRepository {
                 checkForUpdate(user);
             }
 
+            @Override
+            public void onUserLogin(UserLoginEvent event) {
+                PlayerData data = getPlayerData(event.getUser());
+                if (data != null) {
+                    index(data);
+                }
+            }
+
             @Override
             public void onUserDisconnect(UserDisconnectEvent event) {
                 removePlayerData(event.getUser());
@@ -77,14 +110,14 @@ public class SierraDataManager implements UserRepository {
     }
 
     private void checkIfBlocked(User user) {
-        if (Sierra.getPlugin().getSierraConfigEngine().config().getBoolean("block-connections-after-ban", true)) {
+        if (Sierra.getPlugin().getSierraConfigEngine().snapshot().isBlockConnectionsAfterBan()) {
             String hostAddress = user.getAddress().getAddress().getHostAddress();
             if (Sierra.getPlugin().getAddressStorage().invalid(hostAddress)) {
                 Sierra.getPlugin()
                     .getLogger()
                     .info("Connection of " + hostAddress + " got blocked, cause it was punished recently");
 
-                PlayerData data = getPlayerData(user).get();
+                PlayerData data = getPlayerData(user);
 
                 if (data != null) {
                     data.punish(MitigationStrategy.KICK);
@@ -171,37 +204,107 @@ public class SierraDataManager implements UserRepository {
     private void createHistory(String username, String clientVersion, MitigationStrategy mitigationStrategy, long ping,
                                String description, HistoryType type) {
 
-        FoliaScheduler.getAsyncScheduler()
-            .runNow(Sierra.getPlugin(), o -> {
-
-                        HistoryDocument document = new HistoryDocument(
-                            username, description, clientVersion, ping, mitigationStrategy, type);
-
-                        AsyncHistoryCreateEvent event = new AsyncHistoryCreateEvent(document);
-                        Sierra.getPlugin().getEventBus().publish(event);
+        HistoryDocument document = new HistoryDocument(
+            username, description, clientVersion, ping, mitigationStrategy, type);
 
-                        if (!event.isCancelled()) {
-                            histories.add(document);
-                        }
-                    }
-            );
+        // Submitted reliably, so a flood of detections never costs the record of a punishment
+        DetectionPipeline.getInstance().submitReliably(new AsyncHistoryCreateEvent(document), event -> {
+            if (!event.isCancelled()) {
+                historyStore.append(document);
+            }
+        });
     }
 
-    public WeakReference<PlayerData> getPlayerData(User user) {
-        return new WeakReference<>(playerData.get(user));
+    /**
+     * Retrieves the PlayerData of the given user. The PlayerData is read from the channel of the user, the map is only
+     * used for users without a Netty channel.
+     *
+     * @param user the user
+     * @return the PlayerData, or null if the user is not connected
+     */
+    public PlayerData getPlayerData(User user) {
+        Object channel = user.getChannel();
+        if (channel instanceof Channel) {
+            return ((Channel) channel).attr(PLAYER_DATA_KEY).get();
+        }
+        return playerData.get(user);
     }
 
     public void addPlayerData(User user) {
-        playerData.put(user, new PlayerData(user));
+        PlayerData data = new PlayerData(user);
+        playerData.put(user, data);
+        index(data);
+
+        if (user.getChannel() instanceof Channel) {
+            ((Channel) user.getChannel()).attr(PLAYER_DATA_KEY).set(data);
+        }
     }
 
     public void removePlayerData(User user) {
-        PlayerData data = playerData.get(user);
+        if (user.getChannel() instanceof Channel) {
+            ((Channel) user.getChannel()).attr(PLAYER_DATA_KEY).set(null);
+        }
 
-        if (data != null && data.getSierraLogger() != null) {
-            data.getSierraLogger().close();
+        AlertDispatcher.getInstance().unsubscribe(user);
+
+        PlayerData data = playerData.remove(user);
+        if (data != null) {
+            data.detach();
+            data.getTimingProcessor().close();
+            data.getCheckManager().closeTimings();
+            unindex(data);
+        }
+    }
+
+    /**
+     * Indexes the uuid, name and entity id of the player, as far as they are known yet.
+     * The uuid and name are known after the login, the entity id after the join game packet.
+     *
+     * @param data the player to index
+     */
+    public void index(PlayerData data) {
+        User user = data.getUser();
+
+        if (user.getUUID() != null) {
+            uuidIndex.put(user.getUUID(), data);
+        }
+        if (user.getName() != null) {
+            nameIndex.put(user.getName().toLowerCase(Locale.ROOT), data);
+        }
+        indexEntityId(data, user.getEntityId());
+    }
+
+    /**
+     * Moves the player to the given entity id in the entity id index.
+     *
+     * @param data     the player
+     * @param entityId the new entity id of the player
+     */
+    public void indexEntityId(PlayerData data, int entityId) {
+        int previous = data.getIndexedEntityId();
+        if (previous == entityId) return;
+
+        if (previous != -1) {
+            entityIdIndex.remove(previous, data);
+        }
+        if (entityId != -1) {
+            entityIdIndex.put(entityId, data);
+        }
+        data.setIndexedEntityId(entityId);
+    }
+
+    private void unindex(PlayerData data) {
+        User user = data.getUser();
+
+        if (user.getUUID() != null) {
+            uuidIndex.remove(user.getUUID(), data);
+        }
+        if (user.getName() != null) {
+            nameIndex.remove(user.getName().toLowerCase(Locale.ROOT), data);
+        }
+        if (data.getIndexedEntityId() != -1) {
+            entityIdIndex.remove(data.getIndexedEntityId(), data);
         }
-        playerData.remove(user);
     }
 
     public static void increaseKickValue() {
@@ -214,30 +317,26 @@ public class SierraDataManager implements UserRepository {
 
     @Override
     public Optional<SierraUser> queryUserByUuid(UUID uuid) {
-        return playerData.keySet().stream()
-            .filter(user -> user.getUUID().equals(uuid))
-            .map(user -> (SierraUser) playerData.get(user))
-            .findFirst();
+        return Optional.ofNullable(uuidIndex.get(uuid));
     }
 
     @Override
     public Optional<SierraUser> queryUserByEntityId(int id) {
-        return playerData.keySet().stream()
-            .filter(user -> user.getEntityId() == id)
-            .map(user -> (SierraUser) playerData.get(user))
-            .findFirst();
+        return Optional.ofNullable(entityIdIndex.get(id));
     }
 
     @Override
     public Optional<SierraUser> queryUserByName(String name) {
-        return playerData.keySet().stream()
-            .filter(user -> user.getName().equalsIgnoreCase(name))
-            .map(user -> (SierraUser) playerData.get(user))
-            .findFirst();
+        return Optional.ofNullable(nameIndex.get(name.toLowerCase(Locale.ROOT)));
     }
 
     @Override
     public List<History> getLocalActionHistory() {
-        return histories;
+        return historyStore.recent();
+    }
+
+    @Override
+    public List<History> queryActionHistory(long from, long to, int limit) {
+        return historyStore.query(from, to, limit);
     }
 }
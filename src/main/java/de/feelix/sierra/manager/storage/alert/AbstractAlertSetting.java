@@ -1,10 +1,14 @@
 package de.feelix.sierra.manager.storage.alert;
 
+import com.github.retrooper.packetevents.protocol.player.User;
 import de.feelix.sierraapi.user.settings.AlertSettings;
 
+import java.util.Set;
+
 /**
  * {@code AbstractAlertSetting} is a class that implements the {@code AlertSettings} interface.
  * It provides a basic implementation of the methods in the {@code AlertSettings} interface.
+ * Toggling the setting adds or removes the user from the subscribers the {@link AlertDispatcher} delivers to.
  *
  * @see AlertSettings
  */
@@ -22,6 +26,20 @@ public class AbstractAlertSetting implements AlertSettings {
      */
     private boolean enabled = false;
 
+    private final Set<User> subscribers;
+    private final User      user;
+
+    /**
+     * Creates a disabled alert setting.
+     *
+     * @param subscribers the subscribers of the alerts this setting controls
+     * @param user        the user this setting belongs to
+     */
+    public AbstractAlertSetting(Set<User> subscribers, User user) {
+        this.subscribers = subscribers;
+        this.user = user;
+    }
+
     /**
      * Returns whether the alert is enabled or disabled.
      *
@@ -40,5 +58,10 @@ public class AbstractAlertSetting implements AlertSettings {
     @Override
     public void toggle(boolean enabled) {
         this.enabled = enabled;
+        if (enabled) {
+            subscribers.add(user);
+        } else {
+            subscribers.remove(user);
+        }
     }
 }
@@ -0,0 +1,28 @@
+package de.feelix.sierra.manager.storage.alert;
+
+import de.feelix.sierra.check.violation.Debug;
+import de.feelix.sierraapi.violation.MitigationStrategy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * The Alert class is an immutable snapshot of a detection, taken on the thread that detected it.
+ * It only holds the raw values; the messages are rendered by the {@link AlertDispatcher}.
+ */
+@Getter
+@AllArgsConstructor
+public class Alert {
+
+    private final String             username;
+    private final String             clientVersion;
+    private final String             brand;
+    private final int                ticksExisted;
+    private final String             gameMode;
+    private final String             checkName;
+    private final MitigationStrategy mitigationStrategy;
+    private final String             description;
+    private final List<Debug<?>>     debugs;
+    private final int                violations;
+}
@@ -0,0 +1,155 @@
+package de.feelix.sierra.manager.storage.alert;
+
+import com.github.retrooper.packetevents.protocol.player.User;
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.utilities.BoundedWorker;
+import de.feelix.sierra.utilities.FormatUtils;
+import de.feelix.sierra.utilities.message.ConfigValue;
+import de.feelix.sierraapi.violation.MitigationStrategy;
+import io.github.retrooper.packetevents.adventure.serializer.legacy.LegacyComponentSerializer;
+import lombok.Getter;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The AlertDispatcher class delivers the staff alerts of all detections on a single background thread.
+ * <p>
+ * Detections only enqueue an {@link Alert} into the bounded queue of the {@link BoundedWorker}, so the netty event loops
+ * never format a message or iterate over the players. The dispatcher renders every alert once and sends the same component to every
+ * subscriber. The subscribers are maintained by their {@link AbstractAlertSetting}, so delivering an alert never
+ * iterates over players that do not want it.
+ */
+public class AlertDispatcher extends BoundedWorker<Alert> {
+
+    @Getter
+    private static final AlertDispatcher instance = new AlertDispatcher();
+
+    private static final int MAX_QUEUED_ALERTS = 4096;
+    private static final int MAX_BATCH_SIZE    = 256;
+
+    /**
+     * The users that receive alerts of detections with a mitigation strategy above {@link MitigationStrategy#MITIGATE}.
+     */
+    @Getter
+    private final Set<User> alertSubscribers      = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The users that receive alerts of detections with the {@link MitigationStrategy#MITIGATE} strategy.
+     */
+    @Getter
+    private final Set<User> mitigationSubscribers = ConcurrentHashMap.newKeySet();
+
+    private AlertDispatcher() {
+        super("Sierra Alert Dispatcher", MAX_QUEUED_ALERTS, MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Checks whether anyone receives alerts of the given mitigation strategy, so detections can skip building the
+     * alert if nobody would see it.
+     *
+     * @param mitigationStrategy The mitigation strategy of the detection
+     * @return true if at least one user is subscribed, false otherwise
+     */
+    public boolean hasSubscribers(MitigationStrategy mitigationStrategy) {
+        return !subscribers(mitigationStrategy).isEmpty();
+    }
+
+    /**
+     * Removes the given user from all subscriptions.
+     *
+     * @param user The user that disconnected
+     */
+    public void unsubscribe(User user) {
+        alertSubscribers.remove(user);
+        mitigationSubscribers.remove(user);
+    }
+
+    /**
+     * Enqueues an alert. The alert is dropped and counted if the queue is full.
+     *
+     * @param alert The alert to deliver
+     */
+    public void submit(Alert alert) {
+        enqueue(alert);
+    }
+
+    @Override
+    protected void process(Alert alert) {
+        try {
+            deliver(alert);
+        } catch (Exception e) {
+            Sierra.getPlugin().getLogger().warning("Unable to deliver alert: " + e.getMessage());
+        }
+    }
+
+    private void deliver(Alert alert) {
+        Set<User> subscribers = subscribers(alert.getMitigationStrategy());
+        if (subscribers.isEmpty()) return;
+
+        Component component = render(alert);
+        for (User subscriber : subscribers) {
+            subscriber.sendMessage(component);
+        }
+    }
+
+    private Set<User> subscribers(MitigationStrategy mitigationStrategy) {
+        return mitigationStrategy == MitigationStrategy.MITIGATE ? mitigationSubscribers : alertSubscribers;
+    }
+
+    private Component render(Alert alert) {
+        return LegacyComponentSerializer.legacy('&')
+            .deserialize(formatStaffAlertMessage(alert))
+            .clickEvent(ClickEvent.clickEvent(ClickEvent.Action.RUN_COMMAND, getPunishmentCommand(alert.getUsername())))
+            .hoverEvent(HoverEvent.showText(Component.text(formatAlertContent(alert))));
+    }
+
+    private String formatStaffAlertMessage(Alert alert) {
+        return new ConfigValue(
+            "layout.detection-message.staff-alert",
+            "{prefix} &b{username} &8┃ &f{mitigation} &b{checkname} &8┃ &3x{violations}", true
+        )
+            .colorize().replacePrefix()
+            .replace("{username}", alert.getUsername())
+            .replace("{mitigation}", alert.getMitigationStrategy().friendlyMessage())
+            .replace("{description}", alert.getDescription())
+            .replace("{checkname}", alert.getCheckName())
+            .replace("{violations}", String.valueOf(alert.getViolations())).message();
+    }
+
+    private String formatAlertContent(Alert alert) {
+        return new ConfigValue(
+            "layout.detection-message.alert-content",
+            " &7Username: &b{username}{n} &7Version: &b{clientVersion}{n} &7Brand: &b{brand}{n} &7Exist since: "
+            + "&b{ticksExisted}{n} &7Game mode: &b{gameMode}{n} &7Tag: &b{tags}{n} &7Description: &b{description}{n} "
+            + "&7Debug info: &b{debugInfo}{n}{n} {alertNote}",
+            true
+        )
+            .replace("{username}", alert.getUsername())
+            .replace("{clientVersion}", alert.getClientVersion()
+                .replace("V_", "")
+                .replace("_", "."))
+            .replace("{brand}", alert.getBrand())
+            .replace("{ticksExisted}", alert.getTicksExisted() + " ticks")
+            .replace("{gameMode}", alert.getGameMode())
+            .replace("{description}", alert.getDescription())
+            .replace("{tags}", alert.getCheckName().toLowerCase())
+            .replace("{debugInfo}", FormatUtils.shortenString(FormatUtils.chainDebugs(alert.getDebugs())))
+            .replace("{alertNote}", getAlertNote())
+            .stripped().colorize().replacePrefix().message();
+    }
+
+    private String getPunishmentCommand(String username) {
+        return new ConfigValue("layout.detection-message.alert-command", "/tp {username}", true).replace(
+            "{username}", username).message();
+    }
+
+    private String getAlertNote() {
+        return new ConfigValue("layout.detection-message.alert-command-note", "&fClick to teleport", true).colorize()
+            .replacePrefix()
+            .message();
+    }
+}
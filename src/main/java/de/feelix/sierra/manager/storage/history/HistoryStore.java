@@ -0,0 +1,488 @@
+package de.feelix.sierra.manager.storage.history;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierraapi.history.History;
+import de.feelix.sierraapi.history.HistoryType;
+import de.feelix.sierraapi.violation.MitigationStrategy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The HistoryStore class keeps the action history in a bounded in-memory ring and an append-only log on disk.
+ * <p>
+ * Every entry is appended as a length-prefixed binary record to the active segment file. Every
+ * {@link #INDEX_INTERVAL}th record is also written with its timestamp and offset to an index file next to it, so
+ * time range queries seek close to the first match instead of reading the whole segment. Segments roll over once
+ * they reach their size limit and are deleted once they exceed the configured retention age or total size.
+ * <p>
+ * The store is loaded once by an asynchronous startup step, or on first use by a method reading the disk anyway.
+ * Loading reads the index of the active segment, validates the records behind its last entry, truncates a damaged
+ * tail and fills the ring with the newest entries, reading older segments as well if the active one holds too few.
+ * <p>
+ * The methods touching the disk are synchronized. The ring is guarded by its own lock, so {@link #recent()} never
+ * waits for disk I/O and can be called on the server thread; it is only handed out as a copy.
+ */
+public class HistoryStore {
+
+    private static final File HISTORY_DIRECTORY = new File("plugins/Sierra/history/");
+
+    private static final String SEGMENT_PREFIX  = "history-";
+    private static final String DATA_EXTENSION  = ".bin";
+    private static final String INDEX_EXTENSION = ".idx";
+
+    private static final int  RECENT_CAPACITY   = 1000;
+    private static final int  INDEX_INTERVAL    = 64;
+    private static final int  MAX_RECORD_BYTES  = 64 * 1024;
+    private static final int  MAX_STRING_LENGTH = 4096;
+    private static final long MAX_SEGMENT_BYTES = 16L * 1024 * 1024;
+
+    private static final HistoryType[]        HISTORY_TYPES        = HistoryType.values();
+    private static final MitigationStrategy[] MITIGATION_STRATEGIES = MitigationStrategy.values();
+
+    // Guarded by itself instead of the store, see recent()
+    private final ArrayDeque<History>   recent       = new ArrayDeque<>(RECENT_CAPACITY);
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(256);
+    private final DataOutputStream      recordOutput = new DataOutputStream(recordBuffer);
+
+    private boolean          loaded;
+    private File             activeData;
+    private List<long[]>     activeIndex = new ArrayList<>();
+    private DataOutputStream dataOutput;
+    private DataOutputStream indexOutput;
+    private long             activeBytes;
+    private long             activeRecords;
+
+    /**
+     * Appends an entry to the ring and the active segment.
+     *
+     * @param history The entry to append
+     */
+    public synchronized void append(History history) {
+        load();
+        remember(history);
+
+        if (dataOutput == null) return;
+
+        try {
+            if (activeBytes >= MAX_SEGMENT_BYTES) {
+                roll();
+            }
+            write(history);
+        } catch (IOException e) {
+            Sierra.getPlugin().getLogger().warning("Unable to write history: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves the most recent entries, oldest first. Never reads the disk or waits for it, so the result is empty
+     * until the store was loaded.
+     *
+     * @return An unmodifiable copy of the recent entries
+     */
+    public List<History> recent() {
+        synchronized (recent) {
+            return Collections.unmodifiableList(new ArrayList<>(recent));
+        }
+    }
+
+    /**
+     * Reads the entries of the given time range from disk, oldest first.
+     *
+     * @param from  The first timestamp to include, in milliseconds
+     * @param to    The first timestamp to exclude, in milliseconds
+     * @param limit The maximum number of entries
+     * @return The entries of the time range
+     */
+    public synchronized List<History> query(long from, long to, int limit) {
+        load();
+        List<History> result = new ArrayList<>();
+        if (limit <= 0 || from >= to) return result;
+
+        try {
+            if (dataOutput != null) {
+                dataOutput.flush();
+            }
+
+            File[] segments = segments();
+            List<List<long[]>> indexes = new ArrayList<>(segments.length);
+            for (File segment : segments) {
+                indexes.add(segment.equals(activeData) ? activeIndex : readIndex(indexOf(segment)));
+            }
+
+            for (int i = 0; i < segments.length && result.size() < limit; i++) {
+                List<long[]> index = indexes.get(i);
+                if (index.isEmpty()) continue;
+                if (index.get(0)[0] >= to) break;
+
+                // The first index entry holds the first record, so a segment ends where the next one starts
+                List<long[]> next = i + 1 < indexes.size() ? indexes.get(i + 1) : Collections.emptyList();
+                if (!next.isEmpty() && next.get(0)[0] < from) continue;
+
+                readRange(segments[i], index, from, to, limit, result);
+            }
+        } catch (IOException e) {
+            Sierra.getPlugin().getLogger().warning("Unable to read history: " + e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * Flushes and closes the active segment.
+     */
+    public synchronized void close() {
+        closeActive();
+    }
+
+    /**
+     * Loads the store if it was not loaded yet. Reads from disk, so it should be called off the server thread.
+     */
+    public synchronized void load() {
+        if (loaded) return;
+        loaded = true;
+
+        try {
+            if (!HISTORY_DIRECTORY.exists() && !HISTORY_DIRECTORY.mkdirs()) {
+                throw new IOException("Failed to create history directory: " + HISTORY_DIRECTORY);
+            }
+
+            File[] segments = segments();
+            openActive(segments.length > 0 ? segments[segments.length - 1] : newSegment());
+            applyRetention();
+            fillRecent(segments());
+        } catch (IOException e) {
+            Sierra.getPlugin().getLogger().warning("Unable to load history: " + e.getMessage());
+            closeActive();
+        }
+    }
+
+    /**
+     * Opens the given segment for appending. The records behind the last index entry are validated, missing index
+     * entries are restored and a damaged tail is truncated.
+     *
+     * @param data The data file of the segment
+     * @throws IOException If the segment could not be read or opened
+     */
+    private void openActive(File data) throws IOException {
+        List<long[]> index = readIndex(indexOf(data));
+        long length = data.length();
+
+        while (!index.isEmpty() && index.get(index.size() - 1)[1] >= length) {
+            index.remove(index.size() - 1);
+        }
+
+        long offset = index.isEmpty() ? 0 : index.get(index.size() - 1)[1];
+        long records = index.isEmpty() ? 0 : (long) (index.size() - 1) * INDEX_INTERVAL;
+
+        try (RandomAccessFile file = new RandomAccessFile(data, "rw")) {
+            file.seek(offset);
+            DataInputStream input = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(file.getChannel())));
+
+            byte[] payload;
+            while ((payload = readPayload(input)) != null) {
+                if (records % INDEX_INTERVAL == 0 && records / INDEX_INTERVAL >= index.size()) {
+                    index.add(new long[]{decode(payload).timestamp(), offset});
+                }
+                offset += 4 + payload.length;
+                records++;
+            }
+
+            if (offset < length) {
+                Sierra.getPlugin().getLogger().warning(
+                    "Truncated " + (length - offset) + " damaged bytes of history segment " + data.getName());
+                file.setLength(offset);
+            }
+        }
+
+        writeIndex(indexOf(data), index);
+
+        this.activeData = data;
+        this.activeIndex = index;
+        this.activeBytes = offset;
+        this.activeRecords = records;
+
+        this.dataOutput = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(data, true)));
+        this.indexOutput = new DataOutputStream(new BufferedOutputStream(
+            new FileOutputStream(indexOf(data), true), 1024));
+    }
+
+    /**
+     * Fills the ring with the newest records, reading the segments from the newest to the oldest until it is full.
+     *
+     * @param segments The data files of all segments, oldest first
+     * @throws IOException If a segment could not be read
+     */
+    private void fillRecent(File[] segments) throws IOException {
+        Deque<List<History>> chunks = new ArrayDeque<>();
+        int missing = RECENT_CAPACITY;
+
+        for (int i = segments.length - 1; i >= 0 && missing > 0; i--) {
+            List<long[]> index = segments[i].equals(activeData) ? activeIndex : readIndex(indexOf(segments[i]));
+            if (index.isEmpty()) continue;
+
+            // Every index entry but the last is followed by INDEX_INTERVAL records, so this reads at least the missing
+            int entry = Math.max(0, index.size() - 1 - (missing + INDEX_INTERVAL - 1) / INDEX_INTERVAL);
+            List<History> records = new ArrayList<>();
+            try (DataInputStream input = openAt(segments[i], index.get(entry)[1])) {
+                byte[] payload;
+                while ((payload = readPayload(input)) != null) {
+                    records.add(decode(payload));
+                }
+            }
+
+            List<History> newest = records.subList(Math.max(0, records.size() - missing), records.size());
+            chunks.push(newest);
+            missing -= newest.size();
+        }
+
+        // Filled under one lock, so recent() never sees a partially filled ring
+        synchronized (recent) {
+            for (List<History> chunk : chunks) {
+                for (History history : chunk) {
+                    remember(history);
+                }
+            }
+        }
+    }
+
+    private void readRange(File data, List<long[]> index, long from, long to, int limit, List<History> result)
+        throws IOException {
+
+        long start = 0;
+        for (long[] entry : index) {
+            if (entry[0] >= from) break;
+            start = entry[1];
+        }
+
+        try (DataInputStream input = openAt(data, start)) {
+            byte[] payload;
+            while (result.size() < limit && (payload = readPayload(input)) != null) {
+                HistoryDocument document = decode(payload);
+                if (document.timestamp() >= to) return;
+                if (document.timestamp() >= from) {
+                    result.add(document);
+                }
+            }
+        }
+    }
+
+    private void write(History history) throws IOException {
+        recordBuffer.reset();
+        recordOutput.writeLong(history.timestamp());
+        recordOutput.writeLong(history.ping());
+        recordOutput.writeByte(history.historyType() == null ? -1 : history.historyType().ordinal());
+        recordOutput.writeByte(history.mitigationStrategy() == null ? -1 : history.mitigationStrategy().ordinal());
+        writeString(history.username());
+        writeString(history.clientVersion());
+        writeString(history.description());
+
+        if (activeRecords % INDEX_INTERVAL == 0) {
+            activeIndex.add(new long[]{history.timestamp(), activeBytes});
+            indexOutput.writeLong(history.timestamp());
+            indexOutput.writeLong(activeBytes);
+            indexOutput.flush();
+        }
+
+        dataOutput.writeInt(recordBuffer.size());
+        recordBuffer.writeTo(dataOutput);
+        dataOutput.flush();
+
+        activeBytes += 4 + recordBuffer.size();
+        activeRecords++;
+    }
+
+    private void writeString(String value) throws IOException {
+        String text = value == null ? "" : value;
+        recordOutput.writeUTF(text.length() > MAX_STRING_LENGTH ? text.substring(0, MAX_STRING_LENGTH) : text);
+    }
+
+    private void roll() throws IOException {
+        closeActive();
+        openActive(newSegment());
+        applyRetention();
+    }
+
+    private void closeActive() {
+        try {
+            if (dataOutput != null) dataOutput.close();
+            if (indexOutput != null) indexOutput.close();
+        } catch (IOException e) {
+            Sierra.getPlugin().getLogger().warning("Unable to close history: " + e.getMessage());
+        }
+        dataOutput = null;
+        indexOutput = null;
+    }
+
+    private void remember(History history) {
+        synchronized (recent) {
+            if (recent.size() == RECENT_CAPACITY) {
+                recent.pollFirst();
+            }
+            recent.addLast(history);
+        }
+    }
+
+    /**
+     * Deletes the oldest segments exceeding the configured retention age or total size. The active segment is kept.
+     */
+    private void applyRetention() {
+        File[] segments = segments();
+
+        long maxAge = TimeUnit.DAYS.toMillis(
+            Sierra.getPlugin().getSierraConfigEngine().config().getInt("history-retention-days", 60));
+        long maxBytes = Sierra.getPlugin().getSierraConfigEngine().config().getLong("history-retention-size", 128)
+                        * 1024 * 1024;
+
+        long now = System.currentTimeMillis();
+        long totalBytes = 0;
+
+        // Newest first, so the oldest segments are the ones exceeding the size limit
+        for (int i = segments.length - 1; i >= 0; i--) {
+            File segment = segments[i];
+            totalBytes += segment.length();
+
+            if (segment.equals(activeData)) continue;
+
+            if (now - segment.lastModified() > maxAge || totalBytes > maxBytes) {
+                File index = indexOf(segment);
+                if (!segment.delete() || index.exists() && !index.delete()) {
+                    Sierra.getPlugin().getLogger().warning("Unable to delete history segment: " + segment.getName());
+                }
+            }
+        }
+    }
+
+    private static File newSegment() {
+        long created = System.currentTimeMillis();
+        File segment;
+        while ((segment = new File(HISTORY_DIRECTORY, SEGMENT_PREFIX + created + DATA_EXTENSION)).exists()) {
+            created++;
+        }
+        return segment;
+    }
+
+    /**
+     * Retrieves the data files of all segments, oldest first.
+     *
+     * @return The data files of all segments
+     */
+    private static File[] segments() {
+        File[] segments = HISTORY_DIRECTORY.listFiles(
+            (dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(DATA_EXTENSION));
+        if (segments == null) return new File[0];
+
+        Arrays.sort(segments, Comparator.comparingLong(HistoryStore::createdAt));
+        return segments;
+    }
+
+    private static long createdAt(File segment) {
+        String name = segment.getName();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - DATA_EXTENSION.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static File indexOf(File data) {
+        String name = data.getName();
+        return new File(data.getParentFile(), name.substring(0, name.length() - DATA_EXTENSION.length())
+                                              + INDEX_EXTENSION);
+    }
+
+    private static List<long[]> readIndex(File index) throws IOException {
+        List<long[]> entries = new ArrayList<>();
+        if (!index.exists()) return entries;
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(index)))) {
+            while (true) {
+                long timestamp = input.readLong();
+                long offset = input.readLong();
+                entries.add(new long[]{timestamp, offset});
+            }
+        } catch (EOFException ignored) {
+            // End of the index, a partially written entry is dropped
+        }
+        return entries;
+    }
+
+    private static void writeIndex(File index, List<long[]> entries) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(index)))) {
+            for (long[] entry : entries) {
+                output.writeLong(entry[0]);
+                output.writeLong(entry[1]);
+            }
+        }
+    }
+
+    private static DataInputStream openAt(File data, long offset) throws IOException {
+        FileInputStream input = new FileInputStream(data);
+        try {
+            input.getChannel().position(offset);
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+        return new DataInputStream(new BufferedInputStream(input));
+    }
+
+    /**
+     * Reads the payload of the next record.
+     *
+     * @param input The input positioned at the start of a record
+     * @return The payload, or null at the end of the segment or at a damaged record
+     * @throws IOException If the segment could not be read
+     */
+    private static byte[] readPayload(DataInputStream input) throws IOException {
+        try {
+            int length = input.readInt();
+            if (length <= 0 || length > MAX_RECORD_BYTES) return null;
+
+            byte[] payload = new byte[length];
+            input.readFully(payload);
+            return payload;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static HistoryDocument decode(byte[] payload) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+
+        long timestamp = input.readLong();
+        long ping = input.readLong();
+        int historyType = input.readByte();
+        int mitigationStrategy = input.readByte();
+        String username = input.readUTF();
+        String clientVersion = input.readUTF();
+        String description = input.readUTF();
+
+        return new HistoryDocument(
+            username, description, clientVersion, ping,
+            mitigationStrategy >= 0 && mitigationStrategy < MITIGATION_STRATEGIES.length
+                ? MITIGATION_STRATEGIES[mitigationStrategy] : null,
+            historyType >= 0 && historyType < HISTORY_TYPES.length ? HISTORY_TYPES[historyType] : null,
+            timestamp
+        );
+    }
+}
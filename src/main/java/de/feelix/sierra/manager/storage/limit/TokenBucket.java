@@ -0,0 +1,68 @@
+package de.feelix.sierra.manager.storage.limit;
+
+import de.feelix.sierraapi.user.limit.RateLimit;
+
+/**
+ * The TokenBucket class is a token bucket driven by {@link System#nanoTime()}.
+ * <p>
+ * The bucket refills lazily whenever tokens are taken, so there is no reset task sweeping over all players and no
+ * window boundary a client could burst across. It is only modified by the event loop of its player; the fields are
+ * volatile so {@link RateLimit} readers on other threads see the latest state without taking a lock.
+ */
+public class TokenBucket implements RateLimit {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000D;
+
+    private volatile double rate;
+    private volatile double burst;
+    private volatile double tokens;
+    private volatile long   lastRefill;
+    private volatile boolean filled;
+
+    /**
+     * Takes the given amount of tokens, if available.
+     * The rate and burst are passed on every call, so a reloaded configuration applies immediately.
+     *
+     * @param amount The number of tokens to take
+     * @param rate   The number of tokens refilled per second
+     * @param burst  The number of tokens the bucket holds when it is full
+     * @param now    The current value of {@link System#nanoTime()}
+     * @return true if the tokens were taken, false if not enough tokens are available
+     */
+    public boolean tryAcquire(double amount, double rate, double burst, long now) {
+        this.rate = rate;
+        this.burst = burst;
+
+        double current = filled ? refill(now) : burst;
+        this.filled = true;
+        this.lastRefill = now;
+
+        if (current < amount) {
+            this.tokens = current;
+            return false;
+        }
+
+        this.tokens = current - amount;
+        return true;
+    }
+
+    @Override
+    public double rate() {
+        return rate;
+    }
+
+    @Override
+    public double burst() {
+        return burst;
+    }
+
+    @Override
+    public double available() {
+        return filled ? refill(System.nanoTime()) : burst;
+    }
+
+    private double refill(long now) {
+        double elapsed = Math.max(0, now - lastRefill) / NANOS_PER_SECOND;
+        return Math.min(burst, tokens + elapsed * rate);
+    }
+}
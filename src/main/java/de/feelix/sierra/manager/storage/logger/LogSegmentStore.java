@@ -0,0 +1,310 @@
+package de.feelix.sierra.manager.storage.logger;
+
+import de.feelix.sierra.Sierra;
+import io.github.retrooper.packetevents.util.folia.FoliaScheduler;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The LogSegmentStore class stores the logs of all players in shared, rolling segment files.
+ * <p>
+ * Only one segment is written at a time, so the number of open files no longer grows with the number of players.
+ * The name of every player is appended to an index file next to the segment when the player first appears in it, so
+ * the segments of a player can be found without decompressing them, even if the segment was left behind by a crash.
+ * A segment is sealed once it reaches its size or age limit and is then compressed with gzip in the background.
+ * Sealed segments are deleted once they exceed the configured retention age or total size.
+ * <p>
+ * Appending, flushing and rolling must only be done by the {@link LogWriter} thread.
+ */
+public class LogSegmentStore {
+
+    private static final File LOG_DIRECTORY = new File("plugins/Sierra/logs/");
+
+    private static final String SEGMENT_PREFIX    = "segment-";
+    private static final String SEGMENT_EXTENSION = ".log";
+    private static final String SEALED_EXTENSION  = ".log.gz";
+    private static final String INDEX_EXTENSION   = ".idx";
+    private static final String TEMP_EXTENSION    = ".tmp";
+
+    private static final long MAX_SEGMENT_BYTES = 8L * 1024 * 1024;
+    private static final long MAX_SEGMENT_AGE   = TimeUnit.DAYS.toMillis(1);
+
+    // Only accessed by the writer thread
+    private final Set<String>    activePlayers = new HashSet<>();
+    private       BufferedWriter activeWriter;
+    private       BufferedWriter activeIndexWriter;
+    private       String         activeName;
+    private       long           activeBytes;
+    private       long           activeCreated;
+    private       boolean        leftoversCompressed;
+
+    /**
+     * Appends a line of the given player to the active segment, rolling over to a new segment if necessary.
+     *
+     * @param playerName The name of the player the line belongs to
+     * @param line       The formatted line
+     * @throws IOException If the segment could not be opened or written
+     */
+    void append(String playerName, String line) throws IOException {
+        if (activeWriter != null && (activeBytes >= MAX_SEGMENT_BYTES
+                                     || System.currentTimeMillis() - activeCreated >= MAX_SEGMENT_AGE)) {
+            seal(true);
+        }
+        if (activeWriter == null) {
+            open();
+        }
+
+        activeWriter.write(line);
+        activeWriter.newLine();
+        activeBytes += encodedLength(line) + 1;
+
+        if (activePlayers.add(playerName)) {
+            activeIndexWriter.write(playerName);
+            activeIndexWriter.newLine();
+            activeIndexWriter.flush();
+        }
+    }
+
+    /**
+     * Flushes the active segment.
+     */
+    void flush() {
+        try {
+            if (activeWriter != null) {
+                activeWriter.flush();
+            }
+        } catch (IOException e) {
+            Sierra.getPlugin().getLogger().warning("Unable to flush log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Seals the active segment, if any. The segment is compressed on the next start, as no tasks can be scheduled
+     * while the plugin is disabling.
+     */
+    void close() {
+        try {
+            seal(false);
+        } catch (IOException e) {
+            Sierra.getPlugin().getLogger().warning("Unable to seal log segment: " + e.getMessage());
+        }
+    }
+
+    private void open() throws IOException {
+        if (!LOG_DIRECTORY.exists() && !LOG_DIRECTORY.mkdirs()) {
+            throw new IOException("Failed to create log directory: " + LOG_DIRECTORY);
+        }
+
+        // Segments left behind by a crash or shutdown are compressed before the first new one is started
+        if (!leftoversCompressed) {
+            leftoversCompressed = true;
+            compressLeftoverSegments();
+        }
+
+        activeCreated = System.currentTimeMillis();
+        activeName = SEGMENT_PREFIX + activeCreated;
+        activeBytes = 0;
+        activeWriter = new BufferedWriter(new OutputStreamWriter(
+            new FileOutputStream(new File(LOG_DIRECTORY, activeName + SEGMENT_EXTENSION), true),
+            StandardCharsets.UTF_8
+        ));
+        activeIndexWriter = new BufferedWriter(new OutputStreamWriter(
+            new FileOutputStream(new File(LOG_DIRECTORY, activeName + INDEX_EXTENSION), true),
+            StandardCharsets.UTF_8
+        ));
+    }
+
+    private void seal(boolean compress) throws IOException {
+        if (activeWriter == null) return;
+
+        try {
+            activeWriter.close();
+            activeIndexWriter.close();
+        } finally {
+            activeWriter = null;
+            activeIndexWriter = null;
+            activePlayers.clear();
+        }
+
+        if (!compress) return;
+
+        String sealedName = activeName;
+        FoliaScheduler.getAsyncScheduler().runNow(Sierra.getPlugin(), o -> compressAndApplyRetention(sealedName));
+    }
+
+    private void compressLeftoverSegments() {
+        File[] leftovers = LOG_DIRECTORY.listFiles(
+            (dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_EXTENSION));
+
+        if (leftovers == null) return;
+
+        for (File leftover : leftovers) {
+            String name = leftover.getName();
+            String segmentName = name.substring(0, name.length() - SEGMENT_EXTENSION.length());
+            FoliaScheduler.getAsyncScheduler().runNow(Sierra.getPlugin(), o -> compressAndApplyRetention(segmentName));
+        }
+    }
+
+    /**
+     * Compresses a sealed segment and deletes the oldest sealed segments exceeding the retention limits.
+     * The segment is compressed into a temporary file that is only moved into place once complete, so a failed
+     * compression never leaves a damaged archive that would be preferred over the raw segment.
+     * Synchronized, as multiple segments may be sealed shortly after each other.
+     *
+     * @param segmentName The name of the sealed segment without extension
+     */
+    private static synchronized void compressAndApplyRetention(String segmentName) {
+        File raw = new File(LOG_DIRECTORY, segmentName + SEGMENT_EXTENSION);
+        File sealed = new File(LOG_DIRECTORY, segmentName + SEALED_EXTENSION);
+
+        if (raw.exists()) {
+            File temp = new File(LOG_DIRECTORY, segmentName + SEALED_EXTENSION + TEMP_EXTENSION);
+            try {
+                try (InputStream in = Files.newInputStream(raw.toPath());
+                     OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp.toPath()))) {
+                    byte[] buffer = new byte[8192];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                    }
+                }
+                Files.move(temp.toPath(), sealed.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                Sierra.getPlugin().getLogger().warning("Unable to compress log segment: " + e.getMessage());
+                if (temp.exists() && !temp.delete()) {
+                    Sierra.getPlugin().getLogger().warning("Unable to delete log segment: " + temp.getName());
+                }
+                return;
+            }
+            if (!raw.delete()) {
+                Sierra.getPlugin().getLogger().warning("Unable to delete log segment: " + raw.getName());
+            }
+        }
+
+        applyRetention();
+    }
+
+    private static void applyRetention() {
+        File[] sealedSegments = LOG_DIRECTORY.listFiles(
+            (dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEALED_EXTENSION));
+        if (sealedSegments == null) return;
+
+        long maxAge = TimeUnit.DAYS.toMillis(
+            Sierra.getPlugin().getSierraConfigEngine().config().getInt("log-retention-days", 14));
+        long maxBytes = Sierra.getPlugin().getSierraConfigEngine().config().getLong("log-retention-size", 512)
+                        * 1024 * 1024;
+
+        // Newest first, so the oldest segments are the ones exceeding the size limit
+        Arrays.sort(sealedSegments, Comparator.comparingLong(LogSegmentStore::createdAt).reversed());
+
+        long now = System.currentTimeMillis();
+        long totalBytes = 0;
+
+        for (File segment : sealedSegments) {
+            totalBytes += segment.length();
+
+            // Aged by the creation time in the name, as the archive is only written when the segment is compressed
+            if (now - createdAt(segment) > maxAge || totalBytes > maxBytes) {
+                String name = segment.getName();
+                File index = new File(LOG_DIRECTORY, name.substring(0, name.length() - SEALED_EXTENSION.length())
+                                                     + INDEX_EXTENSION);
+                if (!segment.delete() || index.exists() && !index.delete()) {
+                    Sierra.getPlugin().getLogger().warning("Unable to delete log segment: " + name);
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves the creation time of a segment, which is encoded in its name.
+     *
+     * @param segment A file of the segment
+     * @return The creation time in milliseconds, or 0 if the name holds none
+     */
+    private static long createdAt(File segment) {
+        String name = segment.getName();
+        int end = name.indexOf('.');
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), end == -1 ? name.length() : end));
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Retrieves the segments containing lines of the given player, oldest first. Sealed segments are returned in
+     * their compressed form, the active segment and segments not compressed yet in their raw form.
+     *
+     * @param playerName The name of the player
+     * @return The segment files of the player
+     */
+    public static List<File> segmentsOf(String playerName) {
+        List<File> segments = new ArrayList<>();
+        File[] indexes = LOG_DIRECTORY.listFiles((dir, name) -> name.endsWith(INDEX_EXTENSION));
+        if (indexes == null) return segments;
+
+        Arrays.sort(indexes, Comparator.comparing(File::getName));
+
+        for (File index : indexes) {
+            try {
+                if (!Files.readAllLines(index.toPath(), StandardCharsets.UTF_8).contains(playerName)) continue;
+
+                String name = index.getName();
+                String segmentName = name.substring(0, name.length() - INDEX_EXTENSION.length());
+                File sealed = new File(LOG_DIRECTORY, segmentName + SEALED_EXTENSION);
+                File raw = new File(LOG_DIRECTORY, segmentName + SEGMENT_EXTENSION);
+
+                if (sealed.exists()) {
+                    segments.add(sealed);
+                } else if (raw.exists()) {
+                    segments.add(raw);
+                }
+            } catch (IOException e) {
+                Sierra.getPlugin().getLogger().warning("Unable to read log index: " + e.getMessage());
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Calculates the number of bytes the given line takes up when encoded with UTF-8.
+     *
+     * @param line The line
+     * @return The encoded length in bytes
+     */
+    private static int encodedLength(String line) {
+        int bytes = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < line.length()
+                       && Character.isLowSurrogate(line.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
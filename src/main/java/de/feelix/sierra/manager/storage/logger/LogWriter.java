@@ -0,0 +1,134 @@
+package de.feelix.sierra.manager.storage.logger;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.utilities.BoundedWorker;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The LogWriter class writes the log entries of all SierraLoggers on a single background thread.
+ * <p>
+ * Producers (usually the netty event loops) only enqueue entries into the bounded queue of the {@link BoundedWorker}
+ * and never touch the disk. If the queue is full, entries are dropped and counted instead of blocking the network
+ * thread. The writer thread drains the queue in batches and flushes the shared {@link LogSegmentStore} once the queue
+ * ran empty, once enough data was written or at least every second.
+ */
+public class LogWriter extends BoundedWorker<LogWriter.LogEntry> {
+
+    @Getter
+    private static final LogWriter instance = new LogWriter();
+
+    private static final int  MAX_QUEUED_ENTRIES   = 50_000;
+    private static final int  MAX_BATCH_SIZE       = 1024;
+    private static final int  FLUSH_CHARACTERS     = 64 * 1024;
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // Only accessed by the writer thread
+    private final LogSegmentStore  segmentStore    = new LogSegmentStore();
+    private final SimpleDateFormat timestampFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    private       long             cachedSecond    = -1;
+    private       String           cachedTimestamp = "";
+    private       int              unflushedChars  = 0;
+    private       long             lastFlush       = System.nanoTime();
+
+    private LogWriter() {
+        super("Sierra Log Writer", MAX_QUEUED_ENTRIES, MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Enqueues a log line of the given logger. The line is dropped and counted if the queue is full.
+     *
+     * @param logger  The logger the line belongs to
+     * @param tag     The tag of the line
+     * @param message The message of the line
+     */
+    void submit(SierraLogger logger, LogTag tag, String message) {
+        if (!enqueue(new LogEntry(logger, tag, message, System.currentTimeMillis()))) {
+            logger.getDroppedEntries().incrementAndGet();
+        }
+    }
+
+    /**
+     * Flushes once the queue ran empty, so the worker only parks without unflushed data.
+     */
+    @Override
+    protected void afterBatch(int written) {
+        if (written == 0 || unflushedChars >= FLUSH_CHARACTERS
+            || System.nanoTime() - lastFlush >= FLUSH_INTERVAL_NANOS) {
+            flush();
+        }
+    }
+
+    /**
+     * Seals the active segment once every queued entry was written.
+     */
+    @Override
+    protected void onStop() {
+        segmentStore.close();
+    }
+
+    @Override
+    protected void process(LogEntry entry) {
+        SierraLogger logger = entry.logger;
+        try {
+            long dropped = logger.getDroppedEntries().getAndSet(0);
+            if (dropped > 0) {
+                writeLine(logger, entry.timestamp, LogTag.DROPPED, dropped + " entries dropped, log queue was full");
+            }
+            writeLine(logger, entry.timestamp, entry.tag, entry.message);
+        } catch (IOException e) {
+            Sierra.getPlugin().getLogger().warning("Unable to write log: " + e.getMessage());
+        }
+    }
+
+    private void writeLine(SierraLogger logger, long timestamp, LogTag tag, String message) throws IOException {
+        String line = "[" + formatTimestamp(timestamp) + "] [" + logger.getPlayerName() + "] " + tag.name() + ": "
+                      + message;
+        segmentStore.append(logger.getPlayerName(), line);
+        unflushedChars += line.length() + 1;
+    }
+
+    /**
+     * Formats the timestamp with second precision. The formatted second is cached, as most lines of a batch
+     * share the same second.
+     *
+     * @param timestamp The timestamp in milliseconds
+     * @return The formatted timestamp
+     */
+    private String formatTimestamp(long timestamp) {
+        long second = timestamp / 1000;
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedTimestamp = timestampFormat.format(new Date(timestamp));
+        }
+        return cachedTimestamp;
+    }
+
+    private void flush() {
+        segmentStore.flush();
+        unflushedChars = 0;
+        lastFlush = System.nanoTime();
+    }
+
+    /**
+     * A queued log line.
+     */
+    static final class LogEntry {
+
+        private final SierraLogger logger;
+        private final LogTag       tag;
+        private final String       message;
+        private final long         timestamp;
+
+        private LogEntry(SierraLogger logger, LogTag tag, String message, long timestamp) {
+            this.logger = logger;
+            this.tag = tag;
+            this.message = message;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientPl
 import de.feelix.sierra.Sierra;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.utilities.CastUtil;
+import de.feelix.sierraapi.events.EventBus;
 import de.feelix.sierraapi.events.impl.UserBrandEvent;
 import lombok.Getter;
 
@@ -21,8 +22,8 @@ public class BrandProcessor {
 
     public void process(PacketReceiveEvent event) {
         if (event.getPacketType() == PacketType.Play.Client.PLUGIN_MESSAGE) {
-            WrapperPlayClientPluginMessage wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientPluginMessage(event),
+            WrapperPlayClientPluginMessage wrapper = CastUtil.getWrapper(
+                event, WrapperPlayClientPluginMessage.class, WrapperPlayClientPluginMessage::new,
                 playerData::exceptionDisconnect
             );
             handleChannelMessage(wrapper.getChannelName(), wrapper.getData());
@@ -47,6 +48,9 @@ public class BrandProcessor {
             playerData.setBrand(brand);
             hasBrand = true;
         }
-        Sierra.getPlugin().getEventBus().publish(new UserBrandEvent(playerData, playerData.getBrand()));
+        EventBus eventBus = Sierra.getPlugin().getEventBus();
+        if (eventBus.hasSubscribers(UserBrandEvent.class)) {
+            eventBus.publish(new UserBrandEvent(playerData, playerData.getBrand()));
+        }
     }
 }
@@ -1,6 +1,7 @@
 package de.feelix.sierra.manager.storage.processor;
 
 import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierra.manager.storage.timings.GlobalTimingHandler;
 import de.feelix.sierra.manager.storage.timings.SierraTiming;
 import de.feelix.sierraapi.timing.Timing;
 import de.feelix.sierraapi.timing.TimingHandler;
@@ -8,10 +9,14 @@ import lombok.Getter;
 
 /**
  * The TimingProcessor class is responsible for processing timing information related to player actions.
+ * Every timing of the player is part of the matching server-wide timing of the {@link GlobalTimingHandler} until the
+ * processor is closed.
  */
 @Getter
 public class TimingProcessor implements TimingHandler {
 
+    private static final GlobalTimingHandler GLOBAL = GlobalTimingHandler.getInstance();
+
     /**
      * The playerData variable represents the player data associated with a player.
      * It is of type PlayerData, a class that contains various data and functionality related to players.
@@ -29,7 +34,7 @@ public class TimingProcessor implements TimingHandler {
      * once initialized.
      * The object is instantiated as a SierraTiming, which is an implementation of the Timing interface.
      */
-    private final Timing packetReceiveTiming = new SierraTiming();
+    private final SierraTiming packetReceiveTiming = new SierraTiming(GLOBAL.getPacketReceiveTask());
 
     /**
      * The `frequencyTiming` variable is an instance of the `Timing` interface.
@@ -40,7 +45,7 @@ public class TimingProcessor implements TimingHandler {
      * @see Timing
      * @see SierraTiming
      */
-    private final Timing frequencyTiming = new SierraTiming();
+    private final SierraTiming frequencyTiming = new SierraTiming(GLOBAL.getFrequencyTask());
 
     /**
      * packetSendTiming is a timing object used to measure and track the delay of sending packets.
@@ -49,7 +54,7 @@ public class TimingProcessor implements TimingHandler {
      * initialized.
      * The object is instantiated as a SierraTiming, which is an implementation of the Timing interface.
      */
-    private final Timing packetSendTiming = new SierraTiming();
+    private final SierraTiming packetSendTiming = new SierraTiming(GLOBAL.getPacketSendTask());
 
     /**
      * The movementProcessor variable represents the timing object used to measure and track the delay of movement processing.
@@ -57,7 +62,13 @@ public class TimingProcessor implements TimingHandler {
      * The movementProcessor variable is declared as private and final, indicating that it cannot be reassigned once initialized.
      * The object is instantiated as a SierraTiming, which is an implementation of the Timing interface.
      */
-    private final Timing movementProcessor = new SierraTiming();
+    private final SierraTiming movementProcessor = new SierraTiming(GLOBAL.getMovementTask());
+
+    /**
+     * The transactionTiming variable represents the timing object used to measure how long transaction tasks wait
+     * until the player answered their transaction.
+     */
+    private final SierraTiming transactionTiming = new SierraTiming(GLOBAL.getTransactionTask());
 
     /**
      * Constructs a TimingProcessor object with the given PlayerData.
@@ -116,4 +127,36 @@ public class TimingProcessor implements TimingHandler {
     public Timing getFrequencyTask() {
         return frequencyTiming;
     }
+
+    /**
+     * Retrieves the Timing object measuring how long transaction tasks wait until the player answered their
+     * transaction.
+     *
+     * @return the Timing object for measuring the delay of the transaction tasks
+     */
+    @Override
+    public Timing getTransactionTask() {
+        return transactionTiming;
+    }
+
+    @Override
+    public int getPendingTransactionTasks() {
+        return playerData.getTransactionProcessor().getScheduler().size();
+    }
+
+    @Override
+    public int getPeakTransactionTasks() {
+        return playerData.getTransactionProcessor().getScheduler().getPeakDepth();
+    }
+
+    /**
+     * Removes the timings of the player from the server-wide timings, which keep their recent samples.
+     */
+    public void close() {
+        packetReceiveTiming.close();
+        packetSendTiming.close();
+        frequencyTiming.close();
+        movementProcessor.close();
+        transactionTiming.close();
+    }
 }
@@ -13,14 +13,16 @@ import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientPo
 import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientWindowConfirmation;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerPing;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerWindowConfirmation;
-import de.feelix.sierra.Sierra;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.manager.storage.logger.LogTag;
+import de.feelix.sierra.manager.storage.timings.SierraTiming;
 import de.feelix.sierra.utilities.CastUtil;
 import de.feelix.sierra.utilities.Pair;
+import de.feelix.sierra.utilities.TransactionIdSet;
+import de.feelix.sierra.utilities.TransactionRing;
 import lombok.Getter;
 
-import java.util.*;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -29,10 +31,16 @@ public class TransactionProcessor {
 
     private final PlayerData player;
 
-    public final Queue<Pair<Short, Long>> transactionsSent = new ConcurrentLinkedQueue<>();
+    // Transactions stop once the player did not answer for 15 seconds, so only about 300 are pending at most
+    private static final int MAX_PENDING_TRANSACTIONS = 1024;
+
+    // Transactions are sent at least this often, even if nothing waits for one
+    private static final long HEARTBEAT_MILLIS = 1000;
+
+    public final TransactionRing transactionsSent = new TransactionRing(MAX_PENDING_TRANSACTIONS);
     public final Queue<Pair<Long, Long>> keepAlivesSent = new ConcurrentLinkedQueue<>();
-    private final LinkedList<Pair<Integer, Runnable>> transactionMap = new LinkedList<>();
-    public final List<Short> didWeSendThatTrans = Collections.synchronizedList(new ArrayList<>());
+    private final TransactionScheduler scheduler;
+    public final TransactionIdSet didWeSendThatTrans = new TransactionIdSet();
 
     private final AtomicInteger transactionIDCounter = new AtomicInteger(0);
     public AtomicInteger lastTransactionSent = new AtomicInteger(0);
@@ -40,11 +48,14 @@ public class TransactionProcessor {
 
     private long transactionPing = 0;
     public long lastTransSent = 0;
+    private volatile boolean transactionRequested = false;
     public long lastTransReceived = 0;
     private long playerClockAtLeast = System.nanoTime();
 
     public TransactionProcessor(PlayerData playerData) {
         this.player = playerData;
+        this.scheduler = new TransactionScheduler(
+            playerData, (SierraTiming) playerData.getTimingProcessor().getTransactionTask());
     }
 
     // Players can get 0 ping by repeatedly sending invalid transaction packets, but that will only hurt them
@@ -52,39 +63,49 @@ public class TransactionProcessor {
     // But if some error made a client miss a packet, then it won't hurt them too bad.
     // Also it forces players to take knockback
     public boolean addTransactionResponse(short id) {
-        Pair<Short, Long> data = null;
-        boolean hasID = false;
-        int skipped = 0;
-        for (Pair<Short, Long> iterator : transactionsSent) {
-            if (iterator.getFirst() == id) {
-                hasID = true;
-                break;
-            }
-            skipped++;
+        int skipped = transactionsSent.indexOf(id);
+
+        if (skipped == -1) {
+            return false;
+        }
+
+        if (skipped > 0 && System.currentTimeMillis() - player.getJoinTime() > 5000) {
+            player.getSierraLogger().log(LogTag.SKIP, "Skipped transaction: " + id + " (" + skipped + ")");
         }
 
-        if (hasID) {
+        // Skipped transactions count as answered as well
+        long sentTime = transactionsSent.timeAt(skipped);
+        transactionsSent.remove(skipped + 1);
 
-            if (skipped > 0 && System.currentTimeMillis() - player.getJoinTime() > 5000) {
-                player.getSierraLogger().log(LogTag.SKIP, "Skipped transaction: " + id + " (" + skipped + ")");
-            }
+        lastTransactionReceived.addAndGet(skipped + 1);
+        lastTransReceived = System.currentTimeMillis();
+        this.player.setPlayerClock(System.nanoTime());
+        transactionPing = (System.nanoTime() - sentTime);
+        playerClockAtLeast = sentTime;
 
-            do {
-                data = transactionsSent.poll();
-                if (data == null) break;
+        handleNettySyncTransaction(lastTransactionReceived.get());
 
-                lastTransactionReceived.incrementAndGet();
-                lastTransReceived = System.currentTimeMillis();
-                this.player.setPlayerClock(System.nanoTime());
-                transactionPing = (System.nanoTime() - data.getSecond());
-                playerClockAtLeast = data.getSecond();
-            } while (data.getFirst() != id);
+        // We were the ones who sent the packet
+        return true;
+    }
 
-            handleNettySyncTransaction(lastTransactionReceived.get());
-        }
+    /**
+     * Requests a transaction with the next poll, for checks that sync with the client clock.
+     */
+    public void requestTransaction() {
+        transactionRequested = true;
+    }
 
-        // Were we the ones who sent the packet?
-        return data != null && data.getFirst() == id;
+    /**
+     * Checks if a transaction should be sent with the current poll. Transactions are only sent while a task waits for
+     * one, a check requested one, or once the heartbeat is due, instead of every tick.
+     *
+     * @return true if a transaction should be sent, false otherwise
+     */
+    public boolean shouldSendTransaction() {
+        return transactionRequested
+               || scheduler.size() > 0
+               || System.currentTimeMillis() - lastTransSent >= HEARTBEAT_MILLIS;
     }
 
     public void sendTransaction() {
@@ -103,6 +124,7 @@ public class TransactionProcessor {
         }
 
         lastTransSent = System.currentTimeMillis();
+        transactionRequested = false;
         short transactionID = (short) (-1 * (transactionIDCounter.getAndIncrement() & 0x7FFF));
         try {
 
@@ -141,8 +163,9 @@ public class TransactionProcessor {
     }
 
     private void handleWindowConfirmation(PacketReceiveEvent event) {
-        WrapperPlayClientWindowConfirmation wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayClientWindowConfirmation(event), player::exceptionDisconnect);
+        WrapperPlayClientWindowConfirmation wrapper = CastUtil.getWrapper(
+            event, WrapperPlayClientWindowConfirmation.class, WrapperPlayClientWindowConfirmation::new,
+            player::exceptionDisconnect);
         short id = wrapper.getActionId();
         if (id <= 0 && addTransactionResponse(id)) {
             event.setCancelled(true);
@@ -150,8 +173,8 @@ public class TransactionProcessor {
     }
 
     private void handlePong(PacketReceiveEvent event) {
-        WrapperPlayClientPong wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayClientPong(event), player::exceptionDisconnect);
+        WrapperPlayClientPong wrapper = CastUtil.getWrapper(
+            event, WrapperPlayClientPong.class, WrapperPlayClientPong::new, player::exceptionDisconnect);
         int id = wrapper.getId();
         if (id == (short) id && addTransactionResponse((short) id)) {
             event.setCancelled(true);
@@ -167,35 +190,36 @@ public class TransactionProcessor {
     }
 
     private void handlePingTransaction(PacketSendEvent event) {
-        WrapperPlayServerPing wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayServerPing(event), player::exceptionDisconnect);
+        WrapperPlayServerPing wrapper = CastUtil.getWrapper(
+            event, WrapperPlayServerPing.class, WrapperPlayServerPing::new, player::exceptionDisconnect);
 
         int id = wrapper.getId();
         // Check if in the short range, we only use short range
         if (id == (short) id) {
-            // Cast ID twice so we can use the list
-            Short shortID = ((short) id);
-            if (didWeSendThatTrans.remove(shortID)) {
-                Pair<Short, Long> solarPair = new Pair<>(shortID, System.nanoTime());
-                transactionsSent.add(solarPair);
-                lastTransactionSent.getAndIncrement();
-            }
+            handleSentTransaction((short) id);
         }
     }
 
     private void handleWindowConfirmationTransaction(PacketSendEvent event) {
-        WrapperPlayServerWindowConfirmation wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayServerWindowConfirmation(event), player::exceptionDisconnect);
+        WrapperPlayServerWindowConfirmation wrapper = CastUtil.getWrapper(
+            event, WrapperPlayServerWindowConfirmation.class, WrapperPlayServerWindowConfirmation::new,
+            player::exceptionDisconnect);
 
         short id = wrapper.getActionId();
 
         // Vanilla always uses an ID starting from 1
         if (id <= 0) {
-            if (didWeSendThatTrans.remove((Short) id)) {
-                Pair<Short, Long> solarPair = new Pair<>(id, System.nanoTime());
-                transactionsSent.add(solarPair);
-                lastTransactionSent.getAndIncrement();
-            }
+            handleSentTransaction(id);
+        }
+    }
+
+    private void handleSentTransaction(short id) {
+        if (!didWeSendThatTrans.remove(id)) return;
+
+        if (transactionsSent.offer(id, System.nanoTime())) {
+            lastTransactionSent.getAndIncrement();
+        } else {
+            player.getSierraLogger().log(LogTag.TRANS_EXCEP, "Too many pending transactions, dropped: " + id);
         }
     }
 
@@ -208,35 +232,11 @@ public class TransactionProcessor {
             }
             return;
         }
-        synchronized (this) {
-            transactionMap.add(new Pair<>(transaction, runnable));
-        }
+        scheduler.schedule(transaction, async, runnable);
     }
 
     public void handleNettySyncTransaction(int transaction) {
-        synchronized (this) {
-            for (ListIterator<Pair<Integer, Runnable>> iterator = transactionMap.listIterator(); iterator.hasNext(); ) {
-                Pair<Integer, Runnable> pair = iterator.next();
-
-                // We are at most a tick ahead when running tasks based on transactions, meaning this is too far
-                if (transaction + 1 < pair.getFirst()) return;
-
-                // This is at most tick ahead of what we want
-                if (transaction == pair.getFirst() - 1) continue;
-
-
-                try {
-                    // Run the task
-                    pair.getSecond().run();
-                } catch (Exception e) {
-                    Sierra.getPlugin().getLogger().severe("An error has occurred when running "
-                                                          + "transactions for player: " + player.username());
-                    e.printStackTrace();
-                }
-                // We ran a task, remove it from the list
-                iterator.remove();
-            }
-        }
+        scheduler.drain(transaction);
     }
 
     public void addTransactionSend(short id) {
@@ -0,0 +1,135 @@
+package de.feelix.sierra.manager.storage.processor;
+
+import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierra.manager.storage.timings.SierraTiming;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The TransactionScheduler class runs tasks once the player answered the transaction they are scheduled for.
+ * <p>
+ * The tasks are kept in a min-heap ordered by their transaction and, for the same transaction, by the order they were
+ * scheduled in, so tasks scheduled out of order still run in transaction order and a lag spike costs O(log n) per task
+ * instead of a walk over the whole list. Due tasks are drained in one batch under the lock and run outside of it.
+ * The delay between scheduling and running a task is recorded into a timing, and the queue depth is tracked.
+ */
+public class TransactionScheduler {
+
+    private final PlayerData playerData;
+
+    /**
+     * The timing recording the delay between scheduling and running a task.
+     */
+    private final SierraTiming taskTiming;
+
+    private final PriorityQueue<ScheduledTask> tasks = new PriorityQueue<>();
+
+    private long sequence;
+
+    /**
+     * The largest number of tasks that were pending at once.
+     */
+    @Getter
+    private volatile int peakDepth;
+
+    /**
+     * Constructs a TransactionScheduler for the given player.
+     *
+     * @param playerData the player whose transactions drive the tasks
+     * @param taskTiming the timing recording the delay of the tasks
+     */
+    public TransactionScheduler(PlayerData playerData, SierraTiming taskTiming) {
+        this.playerData = playerData;
+        this.taskTiming = taskTiming;
+    }
+
+    /**
+     * Schedules a task for the given transaction.
+     *
+     * @param transaction the transaction the player has to answer before the task runs
+     * @param async       whether the task runs on the event loop of the player instead of the draining thread
+     * @param runnable    the task
+     */
+    public synchronized void schedule(int transaction, boolean async, Runnable runnable) {
+        tasks.add(new ScheduledTask(transaction, sequence++, System.nanoTime(), async, runnable));
+        peakDepth = Math.max(peakDepth, tasks.size());
+    }
+
+    /**
+     * Runs every task scheduled for the given or an earlier transaction.
+     *
+     * @param transaction the last transaction the player answered
+     */
+    public void drain(int transaction) {
+        List<ScheduledTask> due;
+
+        synchronized (this) {
+            ScheduledTask next = tasks.peek();
+            if (next == null || next.transaction > transaction) return;
+
+            due = new ArrayList<>();
+            while (next != null && next.transaction <= transaction) {
+                due.add(tasks.poll());
+                next = tasks.peek();
+            }
+        }
+
+        long now = System.nanoTime();
+        for (ScheduledTask task : due) {
+            taskTiming.record(now - task.scheduledAt, now);
+
+            if (task.async) {
+                ChannelHelper.runInEventLoop(playerData.getUser().getChannel(), () -> run(task));
+            } else {
+                run(task);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the number of pending tasks.
+     *
+     * @return the number of pending tasks
+     */
+    public synchronized int size() {
+        return tasks.size();
+    }
+
+    private void run(ScheduledTask task) {
+        try {
+            task.runnable.run();
+        } catch (Exception e) {
+            Sierra.getPlugin().getLogger().severe("An error has occurred when running "
+                                                  + "transactions for player: " + playerData.username());
+            e.printStackTrace();
+        }
+    }
+
+    private static final class ScheduledTask implements Comparable<ScheduledTask> {
+
+        private final int      transaction;
+        private final long     sequence;
+        private final long     scheduledAt;
+        private final boolean  async;
+        private final Runnable runnable;
+
+        private ScheduledTask(int transaction, long sequence, long scheduledAt, boolean async, Runnable runnable) {
+            this.transaction = transaction;
+            this.sequence = sequence;
+            this.scheduledAt = scheduledAt;
+            this.async = async;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public int compareTo(ScheduledTask other) {
+            int compare = Integer.compare(transaction, other.transaction);
+            return compare != 0 ? compare : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package de.feelix.sierra.manager.storage.timings;
+
+import de.feelix.sierraapi.timing.Timing;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The AggregateTiming class is an implementation of the Timing interface that sums up the timings of all players.
+ * <p>
+ * Players only record into their own {@link SierraTiming}, which joins the aggregate when it is created. The
+ * aggregate is computed when it is read by adding up the histograms of all members, so no counter is shared between
+ * the netty event loops. The samples of a member leaving the aggregate are taken over, so the statistics still cover
+ * players that disconnected within the recent time window. The computed snapshot is cached for a short time, as the
+ * monitor reads every statistic of an aggregate several times in a row.
+ */
+public class AggregateTiming implements Timing {
+
+    private static final double NANOS_PER_MILLI      = 1_000_000D;
+    private static final long   SNAPSHOT_CACHE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Set<SierraTiming> members = ConcurrentHashMap.newKeySet();
+    private final LatencyHistogram  retired = new LatencyHistogram();
+
+    private volatile LatencyHistogram.Snapshot snapshot;
+    private volatile long                      snapshotTime;
+
+    /**
+     * Adds a timing to the aggregate.
+     *
+     * @param timing the timing of a player
+     */
+    void join(SierraTiming timing) {
+        members.add(timing);
+    }
+
+    /**
+     * Removes a timing from the aggregate and takes over its samples.
+     *
+     * @param timing the timing of a player
+     */
+    void leave(SierraTiming timing) {
+        if (members.remove(timing)) {
+            retired.absorb(timing.getHistogram());
+        }
+    }
+
+    /**
+     * The aggregate is not measured itself, so this method does nothing.
+     */
+    @Override
+    public void prepare() {
+    }
+
+    /**
+     * The aggregate is not measured itself, so this method does nothing.
+     */
+    @Override
+    public void end() {
+    }
+
+    /**
+     * Returns the average delay measured within the recent time window.
+     *
+     * @return the average delay in milliseconds, or a negative value if nothing was measured
+     */
+    @Override
+    public double delay() {
+        LatencyHistogram.Snapshot snapshot = snapshot();
+        return snapshot.count() == 0 ? -1 : snapshot.total() / (double) snapshot.count() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double percentile(double percentile) {
+        return snapshot().percentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double maxDelay() {
+        return snapshot().max() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double totalDelay() {
+        return snapshot().total() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long count() {
+        return snapshot().count();
+    }
+
+    private LatencyHistogram.Snapshot snapshot() {
+        long now = System.nanoTime();
+        LatencyHistogram.Snapshot cached = this.snapshot;
+        if (cached != null && now - snapshotTime < SNAPSHOT_CACHE_NANOS) return cached;
+
+        LatencyHistogram.Snapshot computed = new LatencyHistogram.Snapshot();
+        computed.add(retired);
+        for (SierraTiming member : members) {
+            computed.add(member.getHistogram());
+        }
+
+        this.snapshotTime = now;
+        this.snapshot = computed;
+        return computed;
+    }
+}
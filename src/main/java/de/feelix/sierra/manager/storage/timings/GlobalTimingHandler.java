@@ -0,0 +1,89 @@
+package de.feelix.sierra.manager.storage.timings;
+
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierra.manager.storage.SierraDataManager;
+import de.feelix.sierraapi.check.CheckType;
+import de.feelix.sierraapi.timing.CheckTiming;
+import de.feelix.sierraapi.timing.TimingHandler;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The GlobalTimingHandler class holds the server-wide timings.
+ * They aggregate the timings of every player when they are read, see {@link AggregateTiming}.
+ * Additionally, every check invocation is timed per check and packet type.
+ */
+@Getter
+public class GlobalTimingHandler implements TimingHandler {
+
+    @Getter
+    private static final GlobalTimingHandler instance = new GlobalTimingHandler();
+
+    /**
+     * The packet type name used for packets outside the play state.
+     */
+    public static final String OTHER_PACKETS = "OTHER";
+
+    private final AggregateTiming movementTask      = new AggregateTiming();
+    private final AggregateTiming packetReceiveTask = new AggregateTiming();
+    private final AggregateTiming packetSendTask    = new AggregateTiming();
+    private final AggregateTiming frequencyTask     = new AggregateTiming();
+    private final AggregateTiming transactionTask   = new AggregateTiming();
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, SierraCheckTiming> checkTimings = new ConcurrentHashMap<>();
+
+    private GlobalTimingHandler() {
+    }
+
+    /**
+     * Retrieves the timing of the given check for the given packet type, creating it on first use.
+     * The returned timing adds up the timings of all players, so it should be looked up once and kept.
+     *
+     * @param checkType  the type of the check
+     * @param packetType the packet type, or null for packets outside the play state
+     * @param outgoing   whether the packet type is sent by the server
+     * @return the server-wide timing of the pair
+     */
+    public AggregateTiming checkTiming(CheckType checkType, PacketTypeCommon packetType, boolean outgoing) {
+        String packetName = packetType == null ? OTHER_PACKETS : packetType.getName();
+        String key = checkType.name() + (outgoing ? ":out:" : ":in:") + packetName;
+
+        return checkTimings.computeIfAbsent(key, k -> new SierraCheckTiming(checkType, packetName, outgoing))
+            .timing();
+    }
+
+    @Override
+    public List<CheckTiming> getCheckTimings() {
+        return new ArrayList<>(checkTimings.values());
+    }
+
+    @Override
+    public int getPendingTransactionTasks() {
+        int pending = 0;
+        for (PlayerData playerData : SierraDataManager.getInstance().getPlayerData().values()) {
+            pending += playerData.getTransactionProcessor().getScheduler().size();
+        }
+        return pending;
+    }
+
+    /**
+     * Retrieves the largest number of transaction tasks that were waiting at once for a connected player.
+     *
+     * @return the peak number of pending transaction tasks
+     */
+    @Override
+    public int getPeakTransactionTasks() {
+        int peak = 0;
+        for (PlayerData playerData : SierraDataManager.getInstance().getPlayerData().values()) {
+            peak = Math.max(peak, playerData.getTransactionProcessor().getScheduler().getPeakDepth());
+        }
+        return peak;
+    }
+}
@@ -0,0 +1,245 @@
+package de.feelix.sierra.manager.storage.timings;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The LatencyHistogram class records durations into log-linear buckets, similar to an HDR histogram.
+ * <p>
+ * Every power of two is split into four linear sub-buckets, so a recorded value is resolved with a
+ * relative error of at most 25%, from 64ns up to several minutes. Recording is lock-free and
+ * does not allocate. Samples are kept in two alternating windows of {@link #WINDOW_SECONDS} seconds, so the statistics
+ * always cover the current and the previous window.
+ * <p>
+ * A histogram is meant to be recorded into by a single player, so its counters are never contended. Server-wide
+ * statistics are computed by adding the histograms of all players into a {@link Snapshot} when they are read.
+ */
+public class LatencyHistogram {
+
+    private static final int  SUB_BUCKET_BITS     = 2;
+    private static final int  SUB_BUCKETS         = 1 << SUB_BUCKET_BITS;
+    private static final int  MIN_MAGNITUDE       = 6;
+    private static final long MIN_MAGNITUDE_NANOS = 1L << MIN_MAGNITUDE;
+    private static final int  MAGNITUDES          = 32;
+    private static final int  BUCKETS             = MAGNITUDES * SUB_BUCKETS;
+
+    // Each window stores its buckets followed by the sample count, the sum and the maximum
+    private static final int COUNT_INDEX  = BUCKETS;
+    private static final int TOTAL_INDEX  = BUCKETS + 1;
+    private static final int MAX_INDEX    = BUCKETS + 2;
+    private static final int WINDOW_SLOTS = BUCKETS + 3;
+
+    public static final  long WINDOW_SECONDS = 30;
+    private static final long WINDOW_NANOS   = TimeUnit.SECONDS.toNanos(WINDOW_SECONDS);
+
+    private final AtomicLongArray[] windows = {new AtomicLongArray(WINDOW_SLOTS), new AtomicLongArray(WINDOW_SLOTS)};
+    private final AtomicLongArray   epochs  = new AtomicLongArray(new long[]{Long.MIN_VALUE, Long.MIN_VALUE});
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos The duration in nanoseconds
+     * @param now   The current value of {@link System#nanoTime()}
+     */
+    public void record(long nanos, long now) {
+        if (nanos < 0) return;
+
+        long epoch = Math.floorDiv(now, WINDOW_NANOS);
+        int slot = (int) (epoch & 1);
+        AtomicLongArray window = windows[slot];
+
+        // The first sample of a new window clears the samples of the window before the previous one
+        long windowEpoch = epochs.get(slot);
+        if (windowEpoch != epoch && epochs.compareAndSet(slot, windowEpoch, epoch)) {
+            for (int i = 0; i < WINDOW_SLOTS; i++) {
+                window.set(i, 0);
+            }
+        }
+
+        window.incrementAndGet(bucketOf(nanos));
+        window.incrementAndGet(COUNT_INDEX);
+        window.addAndGet(TOTAL_INDEX, nanos);
+
+        long max;
+        while (nanos > (max = window.get(MAX_INDEX))) {
+            if (window.compareAndSet(MAX_INDEX, max, nanos)) break;
+        }
+    }
+
+    /**
+     * Retrieves the number of samples recorded in the current and the previous window.
+     *
+     * @return The number of samples
+     */
+    public long count() {
+        return snapshot().count();
+    }
+
+    /**
+     * Retrieves the sum of the samples recorded in the current and the previous window.
+     *
+     * @return The sum of the samples in nanoseconds
+     */
+    public long total() {
+        return snapshot().total();
+    }
+
+    /**
+     * Retrieves the largest sample recorded in the current and the previous window.
+     *
+     * @return The largest sample in nanoseconds, or 0 if there is none
+     */
+    public long max() {
+        return snapshot().max();
+    }
+
+    /**
+     * Retrieves the given percentile of the samples recorded in the current and the previous window.
+     *
+     * @param percentile The percentile between 0 and 100
+     * @return The upper bound of the bucket containing the percentile in nanoseconds, or 0 if there are no samples
+     */
+    public long percentile(double percentile) {
+        return snapshot().percentile(percentile);
+    }
+
+    /**
+     * Copies the samples recorded in the current and the previous window.
+     *
+     * @return The copied samples
+     */
+    public Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot();
+        snapshot.add(this);
+        return snapshot;
+    }
+
+    /**
+     * Adds the samples of the live windows of the given histogram to this histogram. Used to keep the samples of a
+     * histogram that is no longer recorded into, so writers of this histogram must not record concurrently.
+     *
+     * @param other The histogram to take over the samples of
+     */
+    public synchronized void absorb(LatencyHistogram other) {
+        long epoch = currentEpoch();
+
+        for (int slot = 0; slot < 2; slot++) {
+            long otherEpoch = other.epochs.get(slot);
+            if (!other.isLive(slot, epoch)) continue;
+
+            long windowEpoch = epochs.get(slot);
+            if (windowEpoch > otherEpoch) continue;
+
+            AtomicLongArray window = windows[slot];
+            if (windowEpoch < otherEpoch) {
+                for (int i = 0; i < WINDOW_SLOTS; i++) {
+                    window.set(i, 0);
+                }
+                epochs.set(slot, otherEpoch);
+            }
+
+            AtomicLongArray otherWindow = other.windows[slot];
+            for (int i = 0; i < MAX_INDEX; i++) {
+                window.addAndGet(i, otherWindow.get(i));
+            }
+            window.set(MAX_INDEX, Math.max(window.get(MAX_INDEX), otherWindow.get(MAX_INDEX)));
+        }
+    }
+
+    private boolean isLive(int slot, long epoch) {
+        long windowEpoch = epochs.get(slot);
+        return windowEpoch == epoch || windowEpoch == epoch - 1;
+    }
+
+    private static long currentEpoch() {
+        return Math.floorDiv(System.nanoTime(), WINDOW_NANOS);
+    }
+
+    private static int bucketOf(long nanos) {
+        if (nanos < MIN_MAGNITUDE_NANOS) return 0;
+
+        int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+        if (magnitude >= MIN_MAGNITUDE + MAGNITUDES) return BUCKETS - 1;
+
+        int subBucket = (int) (nanos >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - MIN_MAGNITUDE) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundOf(int bucket) {
+        int magnitude = bucket / SUB_BUCKETS + MIN_MAGNITUDE;
+        long width = 1L << (magnitude - SUB_BUCKET_BITS);
+        return (1L << magnitude) + (bucket % SUB_BUCKETS + 1) * width - 1;
+    }
+
+    /**
+     * The Snapshot class holds the samples of the live windows of one or more histograms, so the server-wide
+     * statistics can be computed from the histograms of all players without any of them sharing a counter.
+     */
+    public static final class Snapshot {
+
+        private final long[] buckets = new long[BUCKETS];
+        private       long   count;
+        private       long   total;
+        private       long   max;
+
+        /**
+         * Adds the samples recorded in the current and the previous window of the given histogram.
+         *
+         * @param histogram The histogram to add
+         */
+        public void add(LatencyHistogram histogram) {
+            long epoch = currentEpoch();
+
+            for (int slot = 0; slot < 2; slot++) {
+                if (!histogram.isLive(slot, epoch)) continue;
+
+                AtomicLongArray window = histogram.windows[slot];
+                for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                    buckets[bucket] += window.get(bucket);
+                }
+                count += window.get(COUNT_INDEX);
+                total += window.get(TOTAL_INDEX);
+                max = Math.max(max, window.get(MAX_INDEX));
+            }
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public long total() {
+            return total;
+        }
+
+        public long max() {
+            return max;
+        }
+
+        /**
+         * Retrieves the given percentile of the samples.
+         *
+         * @param percentile The percentile between 0 and 100
+         * @return The upper bound of the bucket containing the percentile in nanoseconds, or 0 if there are no
+         * samples
+         */
+        public long percentile(double percentile) {
+            // The buckets are read after the count, so they may hold a few more samples than counted
+            long recorded = 0;
+            for (long bucket : buckets) {
+                recorded += bucket;
+            }
+            if (recorded == 0) return 0;
+
+            long target = Math.max(1, (long) Math.ceil(recorded * Math.min(100, Math.max(0, percentile)) / 100));
+            long seen = 0;
+
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                seen += buckets[bucket];
+                if (seen >= target) {
+                    return Math.min(upperBoundOf(bucket), max);
+                }
+            }
+            return max;
+        }
+    }
+}
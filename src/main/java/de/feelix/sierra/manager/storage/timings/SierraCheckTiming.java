@@ -0,0 +1,43 @@
+package de.feelix.sierra.manager.storage.timings;
+
+import de.feelix.sierraapi.check.CheckType;
+import de.feelix.sierraapi.timing.CheckTiming;
+
+/**
+ * The SierraCheckTiming class is an implementation of the CheckTiming interface.
+ * It holds the server-wide timing of a single check for a single packet type, which adds up the timings of all
+ * players.
+ */
+public class SierraCheckTiming implements CheckTiming {
+
+    private final CheckType       checkType;
+    private final String          packetType;
+    private final boolean         outgoing;
+    private final AggregateTiming timing = new AggregateTiming();
+
+    public SierraCheckTiming(CheckType checkType, String packetType, boolean outgoing) {
+        this.checkType = checkType;
+        this.packetType = packetType;
+        this.outgoing = outgoing;
+    }
+
+    @Override
+    public CheckType checkType() {
+        return checkType;
+    }
+
+    @Override
+    public String packetType() {
+        return packetType;
+    }
+
+    @Override
+    public boolean outgoing() {
+        return outgoing;
+    }
+
+    @Override
+    public AggregateTiming timing() {
+        return timing;
+    }
+}
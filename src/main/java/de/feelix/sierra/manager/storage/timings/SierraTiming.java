@@ -1,27 +1,67 @@
 package de.feelix.sierra.manager.storage.timings;
 
 import de.feelix.sierraapi.timing.Timing;
+import lombok.AccessLevel;
+import lombok.Getter;
 
 /**
  * The SierraTiming class is an implementation of the Timing interface.
  * It provides methods to measure and track the timing of an event.
+ * <p>
+ * Every measured delay is recorded into a {@link LatencyHistogram} owned by this timing only. A timing of a player
+ * joins the matching {@link AggregateTiming}, which adds up the histograms of all players when the server-wide
+ * timings are read, so recording never touches a counter shared with other players.
  */
 public class SierraTiming implements Timing {
 
+    private static final double NANOS_PER_MILLI = 1_000_000D;
+
+    /**
+     * The histogram of the delays measured within the recent time window.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
     /**
-     * The delay variable represents the delay in milliseconds between the start and end of a timed event.
-     * The delay is calculated by subtracting the start time from the end time.
+     * The server-wide timing this timing is part of, or null.
+     */
+    private final AggregateTiming aggregate;
+
+    /**
+     * The delay variable represents the delay in nanoseconds between the start and end of the last timed event.
      * A value of -1 indicates that the delay has not been calculated yet.
      */
-    private double delay = -1;
+    private volatile long delay = -1;
 
     /**
-     * The startTime variable represents the starting time of an event.
-     * It is used to measure and track the timing of the event.
-     * The value is in milliseconds since January 1, 1970, 00:00:00.000 GMT (Unix timestamp).
-     * A value of -1 indicates that the start time has not been set yet.
+     * The startTime variable represents the starting time of an event, as returned by {@link System#nanoTime()}.
+     * Only meaningful while {@link #prepared} is set.
      */
-    private long startTime = -1;
+    private long startTime;
+
+    /**
+     * Whether {@link #prepare()} was called without a matching {@link #end()} yet.
+     */
+    private boolean prepared;
+
+    /**
+     * Constructs a SierraTiming that is not part of an aggregate.
+     */
+    public SierraTiming() {
+        this(null);
+    }
+
+    /**
+     * Constructs a SierraTiming that is part of the given aggregate until it is closed.
+     *
+     * @param aggregate the server-wide timing, or null
+     */
+    public SierraTiming(AggregateTiming aggregate) {
+        this.aggregate = aggregate;
+        if (aggregate != null) {
+            aggregate.join(this);
+        }
+    }
 
     /**
      * Prepares the Timing object for measuring the timing of an event.
@@ -30,30 +70,69 @@ public class SierraTiming implements Timing {
     @Override
     public void prepare() {
         this.startTime = System.nanoTime();
+        this.prepared = true;
     }
 
     /**
-     * Marks the end of the timing measurement and calculates the duration of the event.
-     * This method should be called after finishing the event that needs to be timed.
-     * It subtracts the start time from the current time to calculate the delay in milliseconds.
-     *
-     * @throws IllegalStateException if called before calling the {@code prepare()} method
+     * Marks the end of the timing measurement and records the duration of the event.
+     * Calls without a preceding {@code prepare()} are ignored.
      */
     @Override
     public void end() {
-        this.delay = System.nanoTime() - startTime;
+        if (!prepared) return;
+        prepared = false;
+
+        long now = System.nanoTime();
+        record(now - startTime, now);
     }
 
     /**
-     * Returns the delay in milliseconds between the start and end of the timed event.
-     * The delay is calculated by subtracting the start time from the end time.
+     * Records an externally measured delay.
      *
-     * @return the delay in milliseconds
-     * @throws IllegalStateException if called before calling the {@code prepare()} method or after calling the
-     *                               {@code end()} method
+     * @param nanos the delay in nanoseconds
+     * @param now   the current value of {@link System#nanoTime()}
+     */
+    public void record(long nanos, long now) {
+        this.delay = nanos;
+        this.histogram.record(nanos, now);
+    }
+
+    /**
+     * Removes this timing from its aggregate, which keeps the recent samples. Nothing must be recorded afterwards.
+     */
+    public void close() {
+        if (aggregate != null) {
+            aggregate.leave(this);
+        }
+    }
+
+    /**
+     * Returns the delay in milliseconds between the start and end of the last timed event.
+     *
+     * @return the delay in milliseconds, or a negative value if no event was timed yet
      */
     @Override
     public double delay() {
-        return (this.delay / 1000000);
+        return delay / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double percentile(double percentile) {
+        return histogram.percentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double maxDelay() {
+        return histogram.max() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double totalDelay() {
+        return histogram.total() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long count() {
+        return histogram.count();
     }
 }
@@ -0,0 +1,190 @@
+package de.feelix.sierra.utilities;
+
+import lombok.Getter;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The BoundedWorker class processes the elements submitted by any thread on a single background thread.
+ * <p>
+ * Producers only enqueue elements into a bounded, lock-free queue. If the queue is full, elements are dropped and
+ * counted instead of blocking the producer. The worker drains the queue in batches and parks while it is empty; it
+ * announces that before checking the queue a last time, and producers unpark it after enqueuing if it announced it,
+ * so an element never waits for a polling interval and an idle worker costs nothing.
+ *
+ * @param <E> the type of the queued elements
+ */
+public abstract class BoundedWorker<E> implements Runnable {
+
+    private static final long STOP_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private final String threadName;
+    private final int    capacity;
+    private final int    batchSize;
+
+    private final Queue<E>      queue     = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
+
+    /**
+     * The number of elements dropped because the queue was full.
+     */
+    @Getter
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile boolean idle;
+    private volatile Thread  thread;
+
+    /**
+     * Constructs a BoundedWorker.
+     *
+     * @param threadName the name of the worker thread
+     * @param capacity   the number of queued elements above which further elements are dropped
+     * @param batchSize  the number of elements processed between two calls of {@link #afterBatch(int)}
+     */
+    protected BoundedWorker(String threadName, int capacity, int batchSize) {
+        this.threadName = threadName;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Starts the worker thread if it is not running yet.
+     */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this, threadName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the worker thread after it has processed every queued element.
+     */
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Enqueues an element. The element is dropped and counted if the queue is full.
+     *
+     * @param element the element to process
+     * @return true if the element was enqueued, false if it was dropped
+     */
+    protected boolean enqueue(E element) {
+        if (queueSize.incrementAndGet() > capacity) {
+            queueSize.decrementAndGet();
+            dropped.incrementAndGet();
+            return false;
+        }
+        offer(element);
+        return true;
+    }
+
+    /**
+     * Enqueues an element that must not be lost, regardless of the capacity. The element still counts towards the
+     * capacity, so a backlog of such elements makes droppable elements drop earlier.
+     *
+     * @param element the element to process
+     */
+    protected void enqueueUnbounded(E element) {
+        queueSize.incrementAndGet();
+        offer(element);
+    }
+
+    private void offer(E element) {
+        queue.offer(element);
+        if (idle) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Processes a single element on the worker thread.
+     *
+     * @param element the element
+     */
+    protected abstract void process(E element);
+
+    /**
+     * Called on the worker thread after every batch, including empty batches before the worker parks.
+     *
+     * @param processed the number of elements processed in the batch
+     */
+    protected void afterBatch(int processed) {
+    }
+
+    /**
+     * Returns how long the worker may park while the queue is empty, for workers that have to wake up for periodic
+     * work. Called on the worker thread.
+     *
+     * @return the maximum park time in nanoseconds, or 0 to park until an element is enqueued
+     */
+    protected long idleTimeoutNanos() {
+        return 0;
+    }
+
+    /**
+     * Called on the worker thread once it stopped and processed every queued element.
+     */
+    protected void onStop() {
+    }
+
+    @Override
+    public final void run() {
+        while (running || !queue.isEmpty()) {
+            int processed = drainBatch();
+            afterBatch(processed);
+
+            if (processed == 0 && running) {
+                park();
+            }
+        }
+        onStop();
+    }
+
+    private int drainBatch() {
+        int processed = 0;
+        E element;
+
+        while (processed < batchSize && (element = queue.poll()) != null) {
+            queueSize.decrementAndGet();
+            processed++;
+            process(element);
+        }
+        return processed;
+    }
+
+    /**
+     * Parks until an element is enqueued. The idle flag is published before the queue is checked a last time, so a
+     * producer either sees the flag and unparks the worker, or its element is seen by that check.
+     */
+    private void park() {
+        idle = true;
+        try {
+            if (!queue.isEmpty() || !running) return;
+
+            long timeout = idleTimeoutNanos();
+            if (timeout > 0) {
+                LockSupport.parkNanos(this, timeout);
+            } else {
+                LockSupport.park(this);
+            }
+        } finally {
+            idle = false;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package de.feelix.sierra.utilities;
 
+import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import lombok.experimental.UtilityClass;
 
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -28,4 +31,28 @@ public class CastUtil {
             return null;
         }
     }
+
+    /**
+     * This method retrieves the wrapper of a packet event, decoding the packet at most once per event.
+     * If the event already carries a wrapper of the requested class (because a previous check, listener or
+     * processor decoded it), that instance is returned as is. Otherwise, the packet is decoded by the provided
+     * decoder, which attaches the new wrapper to the event for the following readers.
+     *
+     * @param event        The packet event to read the wrapper from
+     * @param wrapperClass The class of the requested wrapper
+     * @param decoder      The wrapper constructor used if the packet was not decoded yet
+     * @param onFailure    The consumer to handle exceptions
+     * @param <E>          The type of the packet event
+     * @param <T>          The type of the wrapper
+     * @return The shared wrapper of the event, or null if an exception occurred
+     */
+    public <E extends ProtocolPacketEvent, T extends PacketWrapper<?>> T getWrapper(E event, Class<T> wrapperClass,
+                                                                                      Function<E, T> decoder,
+                                                                                      Consumer<Exception> onFailure) {
+        PacketWrapper<?> lastUsedWrapper = event.getLastUsedWrapper();
+        if (lastUsedWrapper != null && lastUsedWrapper.getClass() == wrapperClass) {
+            return wrapperClass.cast(lastUsedWrapper);
+        }
+        return getSupplier(() -> decoder.apply(event), onFailure);
+    }
 }
@@ -0,0 +1,55 @@
+package de.feelix.sierra.utilities;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The TransactionIdSet class is a lock-free bitset of the transaction ids Sierra sent.
+ * <p>
+ * Sierra only sends ids from 0 down to -32767, so one bit per id fits into 4 KiB and every lookup is O(1). Positive
+ * ids are never contained.
+ */
+public class TransactionIdSet {
+
+    private static final int IDS = 1 << 15;
+
+    private final AtomicLongArray words = new AtomicLongArray(IDS >> 6);
+
+    /**
+     * Adds the given id.
+     *
+     * @param id The id, between -32767 and 0
+     */
+    public void add(short id) {
+        int bit = -id;
+        if (bit < 0 || bit >= IDS) return;
+
+        long mask = 1L << bit;
+        int word = bit >> 6;
+
+        long current;
+        do {
+            current = words.get(word);
+        } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+    }
+
+    /**
+     * Removes the given id.
+     *
+     * @param id The id
+     * @return true if the id was contained, false otherwise
+     */
+    public boolean remove(short id) {
+        int bit = -id;
+        if (bit < 0 || bit >= IDS) return false;
+
+        long mask = 1L << bit;
+        int word = bit >> 6;
+
+        long current;
+        do {
+            current = words.get(word);
+            if ((current & mask) == 0) return false;
+        } while (!words.compareAndSet(word, current, current & ~mask));
+        return true;
+    }
+}
@@ -0,0 +1,94 @@
+package de.feelix.sierra.utilities;
+
+/**
+ * The TransactionRing class is a single-producer/single-consumer ring buffer of sent transactions.
+ * <p>
+ * The ids and send times are stored in parallel primitive arrays, so adding and removing a transaction neither boxes
+ * nor allocates a node. The producer only writes {@code tail} and the consumer only writes {@code head}; both are
+ * volatile, which publishes the array slots between the two threads without a lock.
+ */
+public class TransactionRing {
+
+    private final short[] ids;
+    private final long[]  times;
+    private final int     mask;
+
+    private volatile long head;
+    private volatile long tail;
+
+    /**
+     * Constructs a TransactionRing.
+     *
+     * @param capacity The maximum number of pending transactions, rounded up to a power of two
+     */
+    public TransactionRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ids = new short[size];
+        this.times = new long[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds a transaction. Only called by the producer.
+     *
+     * @param id   The id of the transaction
+     * @param time The {@link System#nanoTime()} the transaction was sent at
+     * @return true if the transaction was added, false if the ring is full
+     */
+    public boolean offer(short id, long time) {
+        long currentTail = tail;
+        if (currentTail - head == ids.length) return false;
+
+        int index = (int) currentTail & mask;
+        ids[index] = id;
+        times[index] = time;
+        tail = currentTail + 1;
+        return true;
+    }
+
+    /**
+     * Finds the given transaction. Only called by the consumer.
+     *
+     * @param id The id of the transaction
+     * @return The number of older transactions in front of it, or -1 if it is not pending
+     */
+    public int indexOf(short id) {
+        long currentHead = head;
+        long currentTail = tail;
+
+        for (long position = currentHead; position < currentTail; position++) {
+            if (ids[(int) position & mask] == id) {
+                return (int) (position - currentHead);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves the send time of a pending transaction. Only called by the consumer.
+     *
+     * @param offset The number of older transactions in front of it
+     * @return The {@link System#nanoTime()} the transaction was sent at
+     */
+    public long timeAt(int offset) {
+        return times[(int) (head + offset) & mask];
+    }
+
+    /**
+     * Removes the given number of the oldest transactions. Only called by the consumer.
+     *
+     * @param count The number of transactions to remove
+     */
+    public void remove(int count) {
+        head = head + Math.min(count, size());
+    }
+
+    /**
+     * Retrieves the number of pending transactions.
+     *
+     * @return The number of pending transactions
+     */
+    public int size() {
+        return (int) (tail - head);
+    }
+}
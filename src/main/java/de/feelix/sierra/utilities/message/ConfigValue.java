@@ -1,83 +1,77 @@
 package de.feelix.sierra.utilities.message;
 
 import de.feelix.sierra.Sierra;
-import org.bukkit.ChatColor;
+
+import java.util.Arrays;
 
 public class ConfigValue {
 
-    private String message;
+    private final MessageTemplate template;
+
+    private String[] replacements = new String[8];
+    private int      size;
 
     /**
      * The ConfigValue class represents a configurable message in the plugin.
-     * It is used to retrieve and manipulate message values from the plugin configuration.
+     * It renders the compiled {@link MessageTemplate} of the message, so creating it does not query the configuration.
      */
     public ConfigValue(String messageKey, String messageOnFailure, boolean messageFile) {
-        if (messageFile) {
-            this.message = Sierra.getPlugin()
-                .getSierraConfigEngine()
-                .messages()
-                .getString(messageKey, messageOnFailure);
-        } else {
-            this.message = Sierra.getPlugin()
-                .getSierraConfigEngine()
-                .config()
-                .getString(messageKey, messageOnFailure);
-        }
+        this.template = Sierra.getPlugin()
+            .getSierraConfigEngine()
+            .templates()
+            .template(messageKey, messageOnFailure, messageFile);
     }
 
     /**
-     * This method returns the message value.
+     * This method renders the message value in a single pass.
      *
      * @return The message value.
      */
     public String message() {
-        this.colorize();
-        return message;
+        return template.render(replacements, size);
     }
 
     /**
-     * Colorizes the message value by replacing color codes with the corresponding color.
-     * Color codes are represented by '&' followed by a color code or color name.
-     * For example, '&a' represents the color green.
+     * Colour codes of the message are translated when its template is compiled, and colour codes of the replaced
+     * values when it is rendered, so this method is kept for compatibility only.
      *
-     * @return The ConfigMessage object with the colorized message value.
+     * @return The ConfigMessage object.
      */
     public ConfigValue colorize() {
-        this.message = ChatColor.translateAlternateColorCodes('&', this.message);
         return this;
     }
 
     /**
-     * Replaces the specified prefix in the message value with the prefix defined in the Sierra class.
-     * The prefix to be replaced is represented by "{prefix}".
-     * This method returns the updated ConfigMessage object.
+     * The prefix is resolved when the template is compiled, so this method is kept for compatibility only.
      *
-     * @return The updated ConfigMessage object with the prefix replaced.
+     * @return The ConfigMessage object.
      */
     public ConfigValue replacePrefix() {
-        this.replace("{prefix}", Sierra.PREFIX);
         return this;
     }
 
     /**
-     * Replaces occurrences of a specified key in the message value with a specified value.
+     * Replaces the placeholder with the given key by the given value when the message is rendered.
      *
-     * @param key   The key to be replaced in the message value.
+     * @param key   The placeholder to be replaced in the message value, including its braces.
      * @param value The value to replace the key with in the message value.
-     * @return The updated ConfigMessage object after the replacement.
+     * @return The updated ConfigMessage object.
      */
     public ConfigValue replace(String key, String value) {
-        this.message = this.message.replace(key, value);
+        if (size + 2 > replacements.length) {
+            replacements = Arrays.copyOf(replacements, replacements.length * 2);
+        }
+        replacements[size++] = key;
+        replacements[size++] = value;
         return this;
     }
 
     /**
-     * Replaces occurrences of "{n}" with a line break ("\n") in the message value.
+     * Line breaks ("{n}") are resolved when the template is compiled, so this method is kept for compatibility only.
      *
-     * @return The updated ConfigMessage object after the replacement.
+     * @return The ConfigMessage object.
      */
     public ConfigValue stripped() {
-        this.replace("{n}", "\n");
         return this;
     }
 }
@@ -0,0 +1,127 @@
+package de.feelix.sierra.utilities.message;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The MessageTemplate class is a message compiled once from its configured text.
+ * <p>
+ * Compiling resolves the prefix, the line breaks and the colour codes of the text and splits it into literal parts and
+ * placeholder slots. Rendering then writes the literals and the values of the slots in a single pass into a builder
+ * that is reused per thread, instead of copying the whole message for every replaced placeholder.
+ */
+public final class MessageTemplate {
+
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    /**
+     * The literal parts of the message, one more than there are placeholders.
+     */
+    private final String[] literals;
+
+    /**
+     * The placeholders between the literal parts, including their braces, e.g. "{username}".
+     */
+    private final String[] placeholders;
+
+    private MessageTemplate(String[] literals, String[] placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+    }
+
+    /**
+     * Compiles the given text.
+     *
+     * @param text   The configured text
+     * @param prefix The colourized prefix replacing "{prefix}"
+     * @return The compiled template
+     */
+    public static MessageTemplate compile(String text, String prefix) {
+        String resolved = ChatColor.translateAlternateColorCodes(
+            '&', text.replace("{prefix}", prefix).replace("{n}", "\n"));
+
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+
+        int literalStart = 0;
+        int open = resolved.indexOf('{');
+        while (open >= 0) {
+            int close = resolved.indexOf('}', open + 1);
+            if (close < 0) break;
+
+            if (isPlaceholderName(resolved, open + 1, close)) {
+                literals.add(resolved.substring(literalStart, open));
+                placeholders.add(resolved.substring(open, close + 1));
+                literalStart = close + 1;
+                open = resolved.indexOf('{', literalStart);
+            } else {
+                open = resolved.indexOf('{', open + 1);
+            }
+        }
+        literals.add(resolved.substring(literalStart));
+
+        return new MessageTemplate(literals.toArray(new String[0]), placeholders.toArray(new String[0]));
+    }
+
+    private static boolean isPlaceholderName(String text, int start, int end) {
+        if (start == end) return false;
+        for (int i = start; i < end; i++) {
+            if (!Character.isLetterOrDigit(text.charAt(i)) && text.charAt(i) != '-' && text.charAt(i) != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Renders the message. Placeholders without a value are kept as they are, colour codes in the values are
+     * translated.
+     *
+     * @param replacements The placeholders and their values, alternating, e.g. "{username}", "Feelix"
+     * @return The rendered message
+     */
+    public String render(String... replacements) {
+        return render(replacements, replacements.length);
+    }
+
+    /**
+     * Renders the message using the first {@code length} entries of the given replacements.
+     *
+     * @param replacements The placeholders and their values, alternating
+     * @param length       The number of used entries of the array
+     * @return The rendered message
+     */
+    public String render(String[] replacements, int length) {
+        if (placeholders.length == 0) return literals[0];
+
+        StringBuilder builder = BUILDER.get();
+        builder.setLength(0);
+
+        for (int i = 0; i < placeholders.length; i++) {
+            builder.append(literals[i]);
+
+            String value = valueOf(placeholders[i], replacements, length);
+            if (value == null) {
+                builder.append(placeholders[i]);
+            } else if (value.indexOf('&') >= 0) {
+                builder.append(ChatColor.translateAlternateColorCodes('&', value));
+            } else {
+                builder.append(value);
+            }
+        }
+        builder.append(literals[placeholders.length]);
+
+        return builder.toString();
+    }
+
+    private static String valueOf(String placeholder, String[] replacements, int length) {
+        for (int i = 0; i + 1 < length; i += 2) {
+            if (placeholder.equals(replacements[i])) {
+                return replacements[i + 1];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,62 @@
+package de.feelix.sierra.utilities.message;
+
+import org.bukkit.ChatColor;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The MessageTemplates class holds the compiled templates of the messages.yml and sierra.yml files.
+ * <p>
+ * Every text of the messages.yml file is compiled when the configuration is loaded, and the whole set is replaced on
+ * reload, so rendering a message never queries the YAML tree. Keys missing in the file are compiled from their
+ * default text on first use.
+ */
+public class MessageTemplates {
+
+    private static final String PREFIX_KEY     = "layout.prefix";
+    private static final String DEFAULT_PREFIX = "&3Sierra &7>";
+
+    private final YamlConfiguration messages;
+    private final YamlConfiguration config;
+    private final String            prefix;
+
+    private final Map<String, MessageTemplate> messageTemplates = new ConcurrentHashMap<>();
+    private final Map<String, MessageTemplate> configTemplates  = new ConcurrentHashMap<>();
+
+    /**
+     * Compiles the texts of the given configurations.
+     *
+     * @param messages The loaded messages.yml configuration
+     * @param config   The loaded sierra.yml configuration
+     */
+    public MessageTemplates(YamlConfiguration messages, YamlConfiguration config) {
+        this.messages = messages;
+        this.config = config;
+        this.prefix = ChatColor.translateAlternateColorCodes('&', messages.getString(PREFIX_KEY, DEFAULT_PREFIX));
+
+        for (String key : messages.getKeys(true)) {
+            if (messages.isString(key)) {
+                messageTemplates.put(key, MessageTemplate.compile(messages.getString(key), prefix));
+            }
+        }
+    }
+
+    /**
+     * Retrieves the compiled template of the given key.
+     *
+     * @param key         The key of the text
+     * @param defaultText The text used if the key is missing
+     * @param messageFile Whether the key belongs to messages.yml instead of sierra.yml
+     * @return The compiled template
+     */
+    public MessageTemplate template(String key, String defaultText, boolean messageFile) {
+        MessageTemplate template = (messageFile ? messageTemplates : configTemplates).get(key);
+        if (template != null) return template;
+
+        YamlConfiguration source = messageFile ? messages : config;
+        return (messageFile ? messageTemplates : configTemplates).computeIfAbsent(
+            key, missing -> MessageTemplate.compile(source.getString(missing, defaultText), prefix));
+    }
+}
@@ -0,0 +1,291 @@
+package de.feelix.sierra.utilities.nbt;
+
+import com.github.retrooper.packetevents.protocol.nbt.*;
+import de.feelix.sierra.utilities.FormatUtils;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The NBTAnalysis class measures an NBT tree in a single pass without converting it to a String.
+ * <p>
+ * The measured length is exactly the length of {@link FormatUtils#mapToString(Map)} of the tree, so limits defined on
+ * the String representation keep their meaning. Besides the length, the analysis collects the encoded length, depth,
+ * node count, largest list, longest String and the occurrences of the configured needles in keys and String values.
+ * The walk stops as soon as a limit is exceeded, so a huge tree is rejected after visiting only the part that exceeded
+ * it.
+ * <p>
+ * An instance is reusable but not thread-safe; each analysis resets the previous result.
+ */
+@Getter
+public class NBTAnalysis {
+
+    /**
+     * The deepest nesting of compounds and lists that is walked.
+     */
+    public static final int MAX_DEPTH = 64;
+
+    private static final String END = "END";
+
+    @Getter(AccessLevel.NONE)
+    private final String[] needles;
+    @Getter(AccessLevel.NONE)
+    private final int[]    occurrences;
+
+    @Getter(AccessLevel.NONE)
+    private long maxLength;
+    @Getter(AccessLevel.NONE)
+    private long maxEncodedLength;
+
+    private long    length;
+    private long    encodedLength;
+    private int     depth;
+    private int     nodes;
+    private int     largestList;
+    private int     longestString;
+    private boolean exceeded;
+
+    /**
+     * Constructs an NBTAnalysis that counts the occurrences of the given needles.
+     *
+     * @param needles The Strings to search for in keys and String values
+     */
+    public NBTAnalysis(String... needles) {
+        this.needles = needles;
+        this.occurrences = new int[needles.length];
+    }
+
+    /**
+     * Analyzes the given compound. The walk stops once the length exceeds {@code maxLength} and the encoded length
+     * exceeds {@code maxEncodedLength}, or once the tree is nested deeper than {@link #MAX_DEPTH}.
+     *
+     * @param compound         The compound to analyze
+     * @param maxLength        The largest length any caller is interested in
+     * @param maxEncodedLength The largest encoded length any caller is interested in
+     * @return This analysis
+     */
+    public NBTAnalysis analyze(NBTCompound compound, long maxLength, long maxEncodedLength) {
+        this.maxLength = maxLength;
+        this.maxEncodedLength = maxEncodedLength;
+        this.length = 0;
+        this.encodedLength = 0;
+        this.depth = 0;
+        this.nodes = 0;
+        this.largestList = 0;
+        this.longestString = 0;
+        this.exceeded = false;
+
+        for (int i = 0; i < occurrences.length; i++) {
+            occurrences[i] = 0;
+        }
+
+        visitTags(compound.getTags(), 1);
+        return this;
+    }
+
+    /**
+     * Retrieves the number of occurrences of the given needle in the keys and String values of the analyzed tree.
+     *
+     * @param needle One of the needles passed on construction
+     * @return The number of occurrences, or 0 if the needle is unknown
+     */
+    public int occurrences(String needle) {
+        for (int i = 0; i < needles.length; i++) {
+            if (needles[i].equals(needle)) {
+                return occurrences[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Checks if the analyzed tree is nested deeper than {@link #MAX_DEPTH}.
+     *
+     * @return true if the tree is too deep, false otherwise
+     */
+    public boolean isTooDeep() {
+        return depth > MAX_DEPTH;
+    }
+
+    /**
+     * Measures the length of the String representation of a single tag, without the needles and limits of an analysis.
+     *
+     * @param nbt   The tag to measure
+     * @param limit The length after which the measurement stops
+     * @return The length of {@link String#valueOf(Object)} of the tag, or a value larger than the limit
+     */
+    public static long lengthOf(NBT nbt, long limit) {
+        NBTAnalysis analysis = new NBTAnalysis();
+        analysis.maxLength = limit;
+        analysis.maxEncodedLength = limit;
+        analysis.visit(nbt, 1);
+        return analysis.length;
+    }
+
+    private void visitTags(Map<String, NBT> tags, int level) {
+        // {key=value, key=value}
+        add(2 + Math.max(0, tags.size() - 1) * 2L);
+
+        for (Map.Entry<String, NBT> entry : tags.entrySet()) {
+            if (exceeded) return;
+            String key = entry.getKey();
+            if (key == null) {
+                add(4);
+            } else {
+                visitString(key);
+            }
+            add(1);
+            visit(entry.getValue(), level);
+        }
+    }
+
+    private void visit(NBT nbt, int level) {
+        if (exceeded) return;
+        nodes++;
+
+        if (level > depth) {
+            depth = level;
+            if (depth > MAX_DEPTH) {
+                exceeded = true;
+                return;
+            }
+        }
+
+        if (nbt == null) {
+            add(4);
+        } else if (nbt instanceof NBTCompound) {
+            add("Compound{}".length());
+            visitTags(((NBTCompound) nbt).getTags(), level + 1);
+        } else if (nbt instanceof NBTList) {
+            visitList((NBTList<?>) nbt, level);
+        } else if (nbt instanceof NBTString) {
+            add("String()".length());
+            visitString(((NBTString) nbt).getValue());
+        } else if (nbt instanceof NBTByte) {
+            add("Byte()".length() + digits(((NBTByte) nbt).getAsByte()));
+        } else if (nbt instanceof NBTShort) {
+            add("Short()".length() + digits(((NBTShort) nbt).getAsShort()));
+        } else if (nbt instanceof NBTInt) {
+            add("Int()".length() + digits(((NBTInt) nbt).getAsInt()));
+        } else if (nbt instanceof NBTLong) {
+            add("Long()".length() + digits(((NBTLong) nbt).getAsLong()));
+        } else if (nbt instanceof NBTByteArray) {
+            visitByteArray(((NBTByteArray) nbt).getValue());
+        } else if (nbt instanceof NBTIntArray) {
+            visitIntArray(((NBTIntArray) nbt).getValue());
+        } else if (nbt instanceof NBTLongArray) {
+            visitLongArray(((NBTLongArray) nbt).getValue());
+        } else if (nbt instanceof NBTEnd) {
+            add(END.length());
+        } else {
+            // Floating point numbers are rare enough to be formatted
+            add(nbt.toString().length());
+        }
+    }
+
+    private void visitList(NBTList<?> list, int level) {
+        List<? extends NBT> tags = list.getTags();
+        int size = tags.size();
+        largestList = Math.max(largestList, size);
+
+        // List([tag, tag])
+        add("List([])".length() + Math.max(0, size - 1) * 2L);
+
+        for (int i = 0; i < size && !exceeded; i++) {
+            visit(tags.get(i), level + 1);
+        }
+    }
+
+    private void visitString(String value) {
+        int valueLength = value.length();
+        longestString = Math.max(longestString, valueLength);
+
+        length += valueLength;
+        encodedLength += encodedLengthOf(value);
+
+        for (int i = 0; i < needles.length; i++) {
+            if (value.contains(needles[i])) {
+                occurrences[i] += FormatUtils.countOccurrences(value, needles[i]);
+            }
+        }
+        checkLimits();
+    }
+
+    private void visitByteArray(byte[] array) {
+        add("ByteArray([])".length() + Math.max(0, array.length - 1) * 2L);
+        for (int i = 0; i < array.length && !exceeded; i++) {
+            add(digits(array[i]));
+        }
+    }
+
+    private void visitIntArray(int[] array) {
+        add("IntArray([])".length() + Math.max(0, array.length - 1) * 2L);
+        for (int i = 0; i < array.length && !exceeded; i++) {
+            add(digits(array[i]));
+        }
+    }
+
+    private void visitLongArray(long[] array) {
+        add("LongArray([])".length() + Math.max(0, array.length - 1) * 2L);
+        for (int i = 0; i < array.length && !exceeded; i++) {
+            add(digits(array[i]));
+        }
+    }
+
+    /**
+     * Adds characters that are encoded with a single byte.
+     */
+    private void add(long characters) {
+        length += characters;
+        encodedLength += characters;
+        checkLimits();
+    }
+
+    private void checkLimits() {
+        if (length > maxLength && encodedLength > maxEncodedLength) {
+            exceeded = true;
+        }
+    }
+
+    /**
+     * Calculates the length of the given String encoded with UTF-8, like {@link String#getBytes} does.
+     */
+    private static int encodedLengthOf(String value) {
+        int encoded = 0;
+        int valueLength = value.length();
+
+        for (int i = 0; i < valueLength; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                encoded++;
+            } else if (c < 0x800) {
+                encoded += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < valueLength
+                       && Character.isLowSurrogate(value.charAt(i + 1))) {
+                encoded += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogates are replaced by '?'
+                encoded++;
+            } else {
+                encoded += 3;
+            }
+        }
+        return encoded;
+    }
+
+    private static int digits(long value) {
+        if (value == Long.MIN_VALUE) return 20;
+
+        int digits = value < 0 ? 2 : 1;
+        long remaining = Math.abs(value);
+
+        while (remaining >= 10) {
+            remaining /= 10;
+            digits++;
+        }
+        return digits;
+    }
+}
@@ -0,0 +1,362 @@
+package de.feelix.sierra.utilities.nbt;
+
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.UtilityClass;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The NBTPreScanner class walks the raw NBT of item-carrying packets before any wrapper decodes them.
+ * <p>
+ * The bytes are read in place through {@link ByteBufHelper#getUnsignedByte(Object, int)}, so the reader index of the
+ * buffer is never moved and nothing is allocated. The walk enforces limits on the nesting depth, the total size, and
+ * the declared length of every list and array, and rejects lengths pointing past the end of the packet. This way a
+ * malicious tree is dropped before PacketEvents materializes it into objects.
+ * <p>
+ * Since 1.20.5 items are sent as data components instead of NBT, so packets of newer servers are not scanned.
+ */
+@UtilityClass
+public class NBTPreScanner {
+
+    /**
+     * The largest number of bytes a single NBT tree may occupy.
+     */
+    public static final int MAX_NBT_BYTES = 262144;
+
+    /**
+     * The largest number of elements a single list may declare.
+     */
+    public static final int MAX_LIST_LENGTH = 1024;
+
+    /**
+     * The largest number of elements a single byte, int or long array may declare.
+     */
+    public static final int MAX_ARRAY_LENGTH = 4096;
+
+    private static final int TAG_END        = 0;
+    private static final int TAG_BYTE       = 1;
+    private static final int TAG_SHORT      = 2;
+    private static final int TAG_INT        = 3;
+    private static final int TAG_LONG       = 4;
+    private static final int TAG_FLOAT      = 5;
+    private static final int TAG_DOUBLE     = 6;
+    private static final int TAG_BYTE_ARRAY = 7;
+    private static final int TAG_STRING     = 8;
+    private static final int TAG_LIST       = 9;
+    private static final int TAG_COMPOUND   = 10;
+    private static final int TAG_INT_ARRAY  = 11;
+    private static final int TAG_LONG_ARRAY = 12;
+
+    // Positions are never negative, so failures are returned as the negated ordinal of their result
+    private static final int TOO_DEEP       = -Result.TOO_DEEP.ordinal();
+    private static final int TOO_LARGE      = -Result.TOO_LARGE.ordinal();
+    private static final int LIST_TOO_LONG  = -Result.LIST_TOO_LONG.ordinal();
+    private static final int ARRAY_TOO_LONG = -Result.ARRAY_TOO_LONG.ordinal();
+    private static final int MALFORMED      = -Result.MALFORMED.ordinal();
+    // Internal only, resolved to TOO_LARGE or MALFORMED once the tree is left
+    private static final int TRUNCATED      = -Result.values().length;
+
+    private static final Result[] RESULTS = Result.values();
+
+    private static final byte[][] BOOK_CHANNELS = {
+        "MC|BEdit".getBytes(StandardCharsets.UTF_8),
+        "MC|BSign".getBytes(StandardCharsets.UTF_8)
+    };
+
+    /**
+     * The outcome of a scan.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum Result {
+        OK("ok"),
+        TOO_DEEP("nbt nested too deep"),
+        TOO_LARGE("nbt too large"),
+        LIST_TOO_LONG("nbt list too long"),
+        ARRAY_TOO_LONG("nbt array too long"),
+        MALFORMED("malformed nbt");
+
+        private final String description;
+    }
+
+    /**
+     * Scans the NBT carried by the given packet, starting at the current reader index of its buffer.
+     *
+     * @param buffer        The buffer of the packet, positioned at the packet content
+     * @param packetType    The type of the packet
+     * @param serverVersion The version of the server, which defines the layout of the packet
+     * @return {@link Result#OK} if the packet carries no NBT or every tree is within the limits
+     */
+    public static Result scan(Object buffer, PacketTypeCommon packetType, ServerVersion serverVersion) {
+        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_20_5)) return Result.OK;
+
+        int index = ByteBufHelper.readerIndex(buffer);
+        int end = ByteBufHelper.writerIndex(buffer);
+        int position;
+
+        if (packetType == PacketType.Play.Client.CLICK_WINDOW) {
+            position = scanClickWindow(buffer, index, end, serverVersion);
+        } else if (packetType == PacketType.Play.Client.CREATIVE_INVENTORY_ACTION) {
+            // Short slot
+            position = scanItem(buffer, index + 2, end, serverVersion);
+        } else if (packetType == PacketType.Play.Client.PLAYER_BLOCK_PLACEMENT) {
+            if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) return Result.OK;
+            // Long position, byte face
+            position = scanItem(buffer, index + 9, end, serverVersion);
+        } else if (packetType == PacketType.Play.Client.EDIT_BOOK) {
+            // Since 1.17.1 the pages are sent as Strings
+            if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_17_1)) return Result.OK;
+            position = scanItem(buffer, index, end, serverVersion);
+        } else if (packetType == PacketType.Play.Client.PLUGIN_MESSAGE) {
+            if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_13)) return Result.OK;
+            position = scanBookMessage(buffer, index, end, serverVersion);
+        } else {
+            return Result.OK;
+        }
+
+        return position < 0 ? RESULTS[-position] : Result.OK;
+    }
+
+    private static int scanClickWindow(Object buffer, int index, int end, ServerVersion serverVersion) {
+        // Unsigned byte window id
+        index++;
+        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_17_1)) {
+            // Var int state id
+            index = skipVarInt(buffer, index, end);
+            if (index < 0) return index;
+        }
+        // Short slot, byte button
+        index += 3;
+        if (serverVersion.isOlderThan(ServerVersion.V_1_17)) {
+            // Short action number
+            index += 2;
+        }
+        // Var int mode
+        index = skipVarInt(buffer, index, end);
+        if (index < 0) return index;
+
+        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_17)) {
+            int countIndex = index;
+            index = skipVarInt(buffer, index, end);
+            if (index < 0) return index;
+
+            int changedSlots = varIntAt(buffer, countIndex);
+            if (changedSlots < 0) return MALFORMED;
+
+            for (int i = 0; i < changedSlots; i++) {
+                // Short slot
+                index = scanItem(buffer, index + 2, end, serverVersion);
+                if (index < 0) return index;
+            }
+        }
+        // The clicked item, or the carried item since 1.17
+        return scanItem(buffer, index, end, serverVersion);
+    }
+
+    private static int scanBookMessage(Object buffer, int index, int end, ServerVersion serverVersion) {
+        int lengthIndex = index;
+        index = skipVarInt(buffer, index, end);
+        if (index < 0) return index;
+
+        int channelLength = varIntAt(buffer, lengthIndex);
+
+        for (byte[] channel : BOOK_CHANNELS) {
+            if (matches(buffer, index, end, channelLength, channel)) {
+                return scanItem(buffer, index + channelLength, end, serverVersion);
+            }
+        }
+        return index;
+    }
+
+    private static boolean matches(Object buffer, int index, int end, int length, byte[] expected) {
+        if (length != expected.length || index + length > end) return false;
+
+        for (int i = 0; i < length; i++) {
+            if (ByteBufHelper.getUnsignedByte(buffer, index + i) != (expected[i] & 0xFF)) return false;
+        }
+        return true;
+    }
+
+    private static int scanItem(Object buffer, int index, int end, ServerVersion serverVersion) {
+        if (index >= end) return MALFORMED;
+
+        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_13_2)) {
+            // Boolean present, var int id, byte amount
+            if (ByteBufHelper.getUnsignedByte(buffer, index++) == 0) return index;
+            index = skipVarInt(buffer, index, end);
+            if (index < 0) return index;
+            index++;
+        } else {
+            // Short id, byte amount, short damage before 1.13
+            if (index + 2 > end) return MALFORMED;
+            if (shortAt(buffer, index) < 0) return index + 2;
+            index += serverVersion.isOlderThan(ServerVersion.V_1_13) ? 5 : 3;
+        }
+        return scanRoot(buffer, index, end, serverVersion.isOlderThan(ServerVersion.V_1_20_2));
+    }
+
+    private static int scanRoot(Object buffer, int index, int end, boolean named) {
+        if (index >= end) return MALFORMED;
+
+        int nbtEnd = (int) Math.min(end, (long) index + MAX_NBT_BYTES);
+        int type = ByteBufHelper.getUnsignedByte(buffer, index++);
+        if (type == TAG_END) return index;
+
+        if (named) {
+            index = skipString(buffer, index, nbtEnd);
+        }
+        if (index >= 0) {
+            index = skipPayload(buffer, index, nbtEnd, type, 0);
+        }
+
+        if (index == TRUNCATED) {
+            return nbtEnd < end ? TOO_LARGE : MALFORMED;
+        }
+        return index;
+    }
+
+    private static int skipPayload(Object buffer, int index, int end, int type, int depth) {
+        if (depth > NBTAnalysis.MAX_DEPTH) return TOO_DEEP;
+
+        switch (type) {
+            case TAG_BYTE:
+                return advance(index, 1, end);
+            case TAG_SHORT:
+                return advance(index, 2, end);
+            case TAG_INT:
+            case TAG_FLOAT:
+                return advance(index, 4, end);
+            case TAG_LONG:
+            case TAG_DOUBLE:
+                return advance(index, 8, end);
+            case TAG_BYTE_ARRAY:
+                return skipArray(buffer, index, end, 1);
+            case TAG_INT_ARRAY:
+                return skipArray(buffer, index, end, 4);
+            case TAG_LONG_ARRAY:
+                return skipArray(buffer, index, end, 8);
+            case TAG_STRING:
+                return skipString(buffer, index, end);
+            case TAG_LIST:
+                return skipList(buffer, index, end, depth);
+            case TAG_COMPOUND:
+                return skipCompound(buffer, index, end, depth);
+            default:
+                return MALFORMED;
+        }
+    }
+
+    private static int skipCompound(Object buffer, int index, int end, int depth) {
+        while (true) {
+            if (index >= end) return TRUNCATED;
+
+            int type = ByteBufHelper.getUnsignedByte(buffer, index++);
+            if (type == TAG_END) return index;
+
+            index = skipString(buffer, index, end);
+            if (index < 0) return index;
+
+            index = skipPayload(buffer, index, end, type, depth + 1);
+            if (index < 0) return index;
+        }
+    }
+
+    private static int skipList(Object buffer, int index, int end, int depth) {
+        if (index + 5 > end) return TRUNCATED;
+
+        int type = ByteBufHelper.getUnsignedByte(buffer, index);
+        int length = intAt(buffer, index + 1);
+        index += 5;
+
+        if (length < 0) return MALFORMED;
+        if (length > MAX_LIST_LENGTH) return LIST_TOO_LONG;
+        if (length == 0) return index;
+        // Elements without a type would not occupy any bytes
+        if (type == TAG_END) return MALFORMED;
+
+        int fixedSize = fixedSizeOf(type);
+        if (fixedSize > 0) {
+            return advance(index, (long) fixedSize * length, end);
+        }
+
+        for (int i = 0; i < length; i++) {
+            index = skipPayload(buffer, index, end, type, depth + 1);
+            if (index < 0) return index;
+        }
+        return index;
+    }
+
+    private static int skipArray(Object buffer, int index, int end, int elementSize) {
+        if (index + 4 > end) return TRUNCATED;
+
+        int length = intAt(buffer, index);
+        if (length < 0) return MALFORMED;
+        if (length > MAX_ARRAY_LENGTH) return ARRAY_TOO_LONG;
+
+        return advance(index + 4, (long) elementSize * length, end);
+    }
+
+    private static int skipString(Object buffer, int index, int end) {
+        if (index + 2 > end) return TRUNCATED;
+        return advance(index + 2, shortAt(buffer, index) & 0xFFFF, end);
+    }
+
+    private static int skipVarInt(Object buffer, int index, int end) {
+        for (int i = 0; i < 5 && index < end; i++) {
+            if ((ByteBufHelper.getUnsignedByte(buffer, index++) & 0x80) == 0) return index;
+        }
+        return MALFORMED;
+    }
+
+    private static int advance(int index, long bytes, int end) {
+        long next = index + bytes;
+        return next > end ? TRUNCATED : (int) next;
+    }
+
+    private static int fixedSizeOf(int type) {
+        switch (type) {
+            case TAG_BYTE:
+                return 1;
+            case TAG_SHORT:
+                return 2;
+            case TAG_INT:
+            case TAG_FLOAT:
+                return 4;
+            case TAG_LONG:
+            case TAG_DOUBLE:
+                return 8;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Reads the var int at the given index. The caller has to check the bounds with {@link #skipVarInt}.
+     */
+    private static int varIntAt(Object buffer, int index) {
+        int value = 0;
+        for (int i = 0; i < 5; i++) {
+            int current = ByteBufHelper.getUnsignedByte(buffer, index + i);
+            value |= (current & 0x7F) << (i * 7);
+            if ((current & 0x80) == 0) break;
+        }
+        return value;
+    }
+
+    private static short shortAt(Object buffer, int index) {
+        return (short) (ByteBufHelper.getUnsignedByte(buffer, index) << 8
+                        | ByteBufHelper.getUnsignedByte(buffer, index + 1));
+    }
+
+    private static int intAt(Object buffer, int index) {
+        return ByteBufHelper.getUnsignedByte(buffer, index) << 24
+               | ByteBufHelper.getUnsignedByte(buffer, index + 1) << 16
+               | ByteBufHelper.getUnsignedByte(buffer, index + 2) << 8
+               | ByteBufHelper.getUnsignedByte(buffer, index + 3);
+    }
+}